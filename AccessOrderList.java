@@ -0,0 +1,87 @@
+package datastructures.dictionaries;
+
+
+/**
+ * A doubly linked list of cache entries, kept in the order they were last used. It follows the
+ * node design of datastructures.lists.DoubleLinkedList, but the caches hold on to the nodes
+ * themselves, so a node can be unlinked or moved in O(1) without searching for it by index.
+ *
+ * The front is the entry that was used the longest time ago and the back the most recent one.
+ */
+final class AccessOrderList<K, V> {
+    Node<K, V> front;
+    Node<K, V> back;
+    private int size;
+
+    AccessOrderList() {
+        this.front = null;
+        this.back = null;
+        this.size = 0;
+    }
+
+    /**
+     * @return is the number of nodes in the list
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Links the given node, which must not be in any list, in at the back.
+     */
+    void addToBack(Node<K, V> node) {
+        node.prev = back;
+        node.next = null;
+        if (back != null) {
+            back.next = node;
+        } else { // the list was empty
+            front = node;
+        }
+        back = node;
+        size++;
+    }
+
+    /**
+     * Takes the given node, which must be in this list, out of it.
+     */
+    void unlink(Node<K, V> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else { // node was the front
+            front = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else { // node was the back
+            back = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        size--;
+    }
+
+    /**
+     * Moves the given node, which must be in this list, to the back.
+     */
+    void moveToBack(Node<K, V> node) {
+        if (node != back) {
+            unlink(node);
+            addToBack(node);
+        }
+    }
+
+    /**
+     * A cache entry. Caches that need to know more about an entry add fields in a subclass.
+     */
+    static class Node<K, V> {
+        final K key;
+        V value;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
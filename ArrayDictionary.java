@@ -4,13 +4,15 @@ package datastructures.dictionaries;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 import static java.util.Arrays.copyOf;
 
 /**
  * @see IDictionary
  */
-public class ArrayDictionary<K, V> implements IDictionary<K, V> {
+public class ArrayDictionary<K, V> extends HashBucket<K, V> {
     /*
     Warning:
     You may not rename this field or change its type.
@@ -65,16 +67,38 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
      * @return is the index of the given key
      * @throws NoSuchKeyException: throws new NoSuchKeyException if the key does not exist in the dictionary
      */
-    private int findIndexOfKey(K key) {
-        if (!this.containsKey(key)) {
+    private int findIndexOfKey(K key, int hash) {
+        int index = indexOfKey(key, hash);
+        if (index < 0) {
             throw new NoSuchKeyException();
         }
+        return index;
+    }
 
-        int index = 0;
-        while (!Objects.equals(key, pairs[index].key)) {
-            index++;
+    /**
+     * @param key: the item who's index the user wishes to find
+     * @return is the index of the given key, or -1 if the key does not exist in the dictionary
+     */
+    int indexOfKey(K key) {
+        return indexOfKey(key, hashOf(key));
+    }
+
+    /**
+     * Finds a key with a single scan over the pairs. Every lookup in this class goes through here.
+     * `equals` is only called on pairs whose stored hash code matches.
+     *
+     * @param key: the item who's index the user wishes to find
+     * @param hash: the hash code of the key, see HashBucket
+     * @return is the index of the given key, or -1 if the key does not exist in the dictionary
+     */
+    int indexOfKey(K key, int hash) {
+        for (int i = 0; i < size; i++) {
+            Pair<K, V> pair = pairs[i];
+            if (pair.hash == hash && Objects.equals(key, pair.key)) {
+                return i;
+            }
         }
-        return index;
+        return -1;
     }
 
     /**
@@ -83,7 +107,12 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
      */
     @Override
     public V get(K key) {
-        return pairs[findIndexOfKey(key)].value;
+        return get(key, hashOf(key));
+    }
+
+    @Override
+    V get(K key, int hash) {
+        return pairs[findIndexOfKey(key, hash)].value;
     }
 
     /**
@@ -94,26 +123,39 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
      */
     @Override
     public V put(K key, V value) {
-        int index = 0;
-        while (index < size && !Objects.equals(key, pairs[index].key)) {
-            index++;
-        }
-        if (index < size && Objects.equals(key, pairs[index].key)) {
+        return put(key, value, hashOf(key));
+    }
+
+    @Override
+    V put(K key, V value, int hash) {
+        int index = indexOfKey(key, hash);
+        if (index >= 0) {
             V oldValue = pairs[index].value;
             pairs[index].value = value;
             return oldValue;
         } else { //it is a new, unique key
-            if (size == pairs.length) {
-                pairs = copyOf(pairs, 2 * pairs.length);
-            }
-            pairs[size] = new Pair(key, value);
-            size++;
+            insertAbsent(key, value, hash);
             return null;
         }
 
 
     }
 
+    @Override
+    Entry<K, V> findEntry(K key, int hash) {
+        int index = indexOfKey(key, hash);
+        return index >= 0 ? pairs[index] : null;
+    }
+
+    @Override
+    void insertAbsent(K key, V value, int hash) {
+        if (size == pairs.length) {
+            pairs = copyOf(pairs, Math.max(1, 2 * pairs.length));
+        }
+        pairs[size] = new Pair<>(hash, key, value);
+        size++;
+    }
+
     /**
      *
      * @param key: the key for the value the user wishes to remove
@@ -122,14 +164,15 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
      */
     @Override
     public V remove(K key) {
+        return remove(key, hashOf(key));
+    }
 
-        int index = 0;
-        while (index < size && !Objects.equals(key, pairs[index].key)) {
-            index++;
-        }
+    @Override
+    V remove(K key, int hash) {
+        int index = indexOfKey(key, hash);
 
-        if (index < size && Objects.equals(key, pairs[index].key)) {
-            V deletedValue = this.get(key);
+        if (index >= 0) {
+            V deletedValue = pairs[index].value;
             pairs[index] = pairs[size - 1];
             pairs[size - 1] = null;
             size--; // accounts for removal at end of array too
@@ -146,12 +189,12 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
      */
     @Override
     public boolean containsKey(K key) {
-        for (int i = 0; i < size; i++) {
-            if (java.util.Objects.equals(key, pairs[i].key)) {
-                return true;
-            }
-        }
-        return false;
+        return indexOfKey(key) >= 0;
+    }
+
+    @Override
+    boolean containsKey(K key, int hash) {
+        return indexOfKey(key, hash) >= 0;
     }
 
     /**
@@ -173,6 +216,49 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         return new ArrayDictionaryIterator<>(pairs);
     }
 
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(pairs[i].key, pairs[i].value);
+        }
+    }
+
+    /**
+     * Shrinks the array of pairs to the number of pairs in the dictionary, giving back the room
+     * left over from earlier growth.
+     */
+    @Override
+    public void trimToSize() {
+        if (size < pairs.length) {
+            pairs = copyOf(pairs, size);
+        }
+    }
+
+    @Override
+    void forEachEntry(EntryVisitor<K, V> visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(pairs[i].hash, pairs[i].key, pairs[i].value);
+        }
+    }
+
+    @Override
+    <U> U search(BiFunction<? super K, ? super V, ? extends U> function) {
+        for (int i = 0; i < size; i++) {
+            U result = function.apply(pairs[i].key, pairs[i].value);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        for (int i = 0; i < size; i++) {
+            pairs[i].value = function.apply(pairs[i].key, pairs[i].value);
+        }
+    }
+
     /**
      *
      * @return is a string representation of the dictionary
@@ -191,16 +277,33 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         return IDictionary.toString(this);
     }
 
-    private static class Pair<K, V> {
+    private static class Pair<K, V> implements Entry<K, V> {
+        // the key's hash code, kept so scans and resizes don't have to call hashCode() again
+        private final int hash;
         private K key;
         private V value;
 
         // You may add constructors and methods to this class as necessary.
         public Pair(K key, V value) {
+            this(hashOf(key), key, value);
+        }
+
+        public Pair(int hash, K key, V value) {
+            this.hash = hash;
             this.key = key;
             this.value = value;
         }
 
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public void setValue(V value) {
+            this.value = value;
+        }
+
         @Override
         public String toString() {
             return String.format("%s=%s", this.key, this.value);
@@ -1,9 +1,23 @@
 package datastructures.dictionaries;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * @see IDictionary for more details on what each method should do
@@ -11,47 +25,219 @@ import java.util.Objects;
 public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
     private static final double DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD = 0.75;
     private static final int DEFAULT_INITIAL_CHAIN_COUNT = 101;
-    private static final int DEFAULT_INITIAL_CHAIN_CAPACITY = 10;
+    // At the default load factor most chains hold one or two pairs; see CompactBucket
+    private static final int DEFAULT_INITIAL_CHAIN_CAPACITY = 2;
+    private static final int MAXIMUM_TABLE_SIZE = 1 << 30;
+    // A chain that grows past this many pairs is turned into a TreeBucket...
+    private static final int TREEIFY_THRESHOLD = 8;
+    // ...and a TreeBucket that shrinks to this many pairs is turned back into a CompactBucket
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    // The table shrinks once its load factor drops below lambda / SHRINK_DIVISOR, to a size that
+    // puts the load factor at lambda / 2, so the item count has to double or halve again before
+    // the next resize in either direction
+    private static final int SHRINK_DIVISOR = 4;
 
-    IDictionary<K, V>[] chains;
+    // How many old chains each operation moves over while an incremental resize is in progress
+    private static final int MIGRATION_STEP = 4;
+    // How many empty old chains an operation may skip over per chain it is allowed to move
+    private static final int MIGRATION_EMPTY_VISITS = 10;
+
+    private static final int SNAPSHOT_MAGIC = 0x43485331; // "CHS1"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_INCREMENTAL_RESIZING = 1;
+    private static final int SNAPSHOT_POWER_OF_TWO_SIZING = 2;
+
+    // What lookupRecorded returns for keys that are not in the dictionary
+    private static final Object MISSING = new Object();
+
+    HashBucket<K, V>[] chains;
+
+    // The previous chains while an incremental resize is in progress; null otherwise.
+    // Chains that have already been moved over to `chains` are set to null.
+    HashBucket<K, V>[] oldChains;
+    private int migrationIndex;
 
     private double lambda;
     private int bucketLength;
     private int tableSize;
+    // the table never shrinks below its initial size on its own; see trimToSize
+    private int minimumTableSize;
     private int itemCount;
+    private boolean incrementalResizing;
+    private boolean powerOfTwoSizing;
+
+    // null unless statistics are turned on, so the hot paths only pay for a null check
+    private StatisticsRecorder stats;
 
     public ChainedHashDictionary() {
         this(DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD, DEFAULT_INITIAL_CHAIN_COUNT, DEFAULT_INITIAL_CHAIN_CAPACITY);
     }
 
     public ChainedHashDictionary(double resizingLoadFactorThreshold, int initialChainCount, int chainInitialCapacity) {
+        this(resizingLoadFactorThreshold, initialChainCount, chainInitialCapacity, false);
+    }
+
+    /**
+     * @param incrementalResizing: if true, growing the table does not rehash every pair at once.
+     *                             Instead the old and new chains are kept side by side and every
+     *                             following operation moves a few old chains over, so no single
+     *                             call pays for the whole rehash.
+     */
+    public ChainedHashDictionary(double resizingLoadFactorThreshold, int initialChainCount, int chainInitialCapacity,
+                                 boolean incrementalResizing) {
+        this(resizingLoadFactorThreshold, initialChainCount, chainInitialCapacity, incrementalResizing, false);
+    }
+
+    /**
+     * @param powerOfTwoSizing: if true, the number of chains is always a power of two and a key's
+     *                          chain is picked by masking its mixed hash code, instead of taking
+     *                          the hash code modulo a prime. This avoids a division on every
+     *                          operation and the search for a prime on every resize.
+     */
+    public ChainedHashDictionary(double resizingLoadFactorThreshold, int initialChainCount, int chainInitialCapacity,
+                                 boolean incrementalResizing, boolean powerOfTwoSizing) {
         itemCount = 0;
-        tableSize = initialChainCount;
+        this.powerOfTwoSizing = powerOfTwoSizing;
+        tableSize = powerOfTwoSizing ? powerOfTwoAtLeast(initialChainCount) : initialChainCount;
+        minimumTableSize = tableSize;
         bucketLength = chainInitialCapacity;
         lambda = resizingLoadFactorThreshold;
-        chains = makeArrayOfChains(initialChainCount);
+        chains = makeArrayOfChains(tableSize);
+        oldChains = null;
+        migrationIndex = 0;
+        this.incrementalResizing = incrementalResizing;
+        stats = null;
+    }
+
+    /**
+     * Starts recording lookup and resize statistics, if they are not being recorded already.
+     * Recording adds a little work to every `get` and resize; it is off by default.
+     */
+    public void enableStatistics() {
+        if (stats == null) {
+            stats = new StatisticsRecorder();
+        }
+    }
+
+    /**
+     * Stops recording statistics and forgets what has been recorded so far.
+     */
+    public void disableStatistics() {
+        stats = null;
+    }
+
+    /**
+     * Returns a snapshot of the current shape of the table, plus the lookup and resize figures
+     * recorded since statistics were enabled (all zero if they are not enabled). Walks every
+     * chain, so it costs about as much as iterating over the dictionary.
+     */
+    public DictionaryStatistics statistics() {
+        int[] histogram = new int[1];
+        histogram = addChainLengths(histogram, chains, true);
+        if (oldChains != null) { // old chains that are not moved yet still hold pairs
+            histogram = addChainLengths(histogram, oldChains, false);
+        }
+        StatisticsRecorder recorded = stats != null ? stats : new StatisticsRecorder();
+        return new DictionaryStatistics(itemCount, tableSize, histogram, recorded.lookups, recorded.hits,
+                recorded.totalProbes, recorded.maxProbeLength, recorded.resizeCount, recorded.resizeNanos);
+    }
+
+    /**
+     * @param countMissingChains: whether null entries of the array count as empty chains
+     * @return is the given histogram of chain lengths, grown if needed, with the lengths of the
+     *         given chains added to it
+     */
+    private static <K, V> int[] addChainLengths(int[] histogram, IDictionary<K, V>[] chainsToCount,
+                                                boolean countMissingChains) {
+        for (IDictionary<K, V> chain : chainsToCount) {
+            if (chain == null && !countMissingChains) {
+                continue;
+            }
+            int length = chain == null ? 0 : chain.size();
+            if (length >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, length + 1);
+            }
+            histogram[length]++;
+        }
+        return histogram;
     }
 
     /**
      * This method will return a new, empty array of the given size that can contain
-     * `IDictionary<K, V>` objects.
+     * `HashBucket<K, V>` objects.
      *
      * Note that each element in the array will initially be null.
      */
     @SuppressWarnings("unchecked")
-    private IDictionary<K, V>[] makeArrayOfChains(int arraySize) {
-        return (IDictionary<K, V>[]) new IDictionary[arraySize];
+    private HashBucket<K, V>[] makeArrayOfChains(int arraySize) {
+        return (HashBucket<K, V>[]) new HashBucket[arraySize];
+    }
+
+    /**
+     * @param hash: the hash code of a key, as given by HashBucket.hashOf
+     * @param length: the number of chains in the table the index is for
+     * @return is the index of the chain for the given hash code in a table with the given number
+     *         of chains
+     */
+    private int indexFor(int hash, int length) {
+        if (powerOfTwoSizing) {
+            return spread(hash) & (length - 1);
+        }
+        // masking off the sign bit, unlike Math.abs, also works for Integer.MIN_VALUE
+        return (hash & 0x7fffffff) % length;
+    }
+
+    /**
+     * @param h: a hash code
+     * @return is the given hash code with its bits mixed (the murmur3 finalizer), so that masking
+     *         off the low bits still depends on every bit of the original hash code
+     */
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * @param num: a positive number
+     * @return is the smallest power of two that is at least the given number
+     */
+    private static int powerOfTwoAtLeast(int num) {
+        int size = 1;
+        while (size < num && size < MAXIMUM_TABLE_SIZE) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * @param minimum: the number of chains the table has to have more than
+     * @return is the size to use for a table with more than the given number of chains
+     */
+    private int tableSizeAbove(int minimum) {
+        if (powerOfTwoSizing) {
+            return powerOfTwoAtLeast(minimum + 1);
+        }
+        return nextPrime(minimum);
     }
 
     /**
-     * @param key: they key one wants to get the hash of
-     * @return is the hash code of the given key
+     * @param hash: the hash code of the key one wants to find the chain of
+     * @return is the chain that holds the key if it is in the dictionary (possibly null).
+     *         While an incremental resize is in progress, that is the key's old chain as long as
+     *         the old chain has not been moved over yet.
      */
-    private int getHash(K key) {
-        if (Objects.equals(key, null)) {
-            return 0;
+    private HashBucket<K, V> findChain(int hash) {
+        if (oldChains != null) {
+            HashBucket<K, V> oldChain = oldChains[indexFor(hash, oldChains.length)];
+            if (oldChain != null) {
+                return oldChain;
+            }
         }
-        return (Math.abs(key.hashCode())) % tableSize;
+        return chains[indexFor(hash, tableSize)];
     }
 
     /**
@@ -59,14 +245,80 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
      * @return is the value of the item you wish to find
      */
     @Override
+    @SuppressWarnings("unchecked")
     public V get(K key) {
-        int hash = getHash(key);
+        migrateSome();
+        int hash = HashBucket.hashOf(key);
+        HashBucket<K, V> chain = findChain(hash);
+        if (stats != null) {
+            Object value = lookupRecorded(key, hash, chain);
+            if (value == MISSING) {
+                throw new NoSuchKeyException();
+            }
+            return (V) value;
+        }
 
-        if (Objects.equals(chains[hash], null)) {
+        if (Objects.equals(chain, null)) {
             throw new NoSuchKeyException();
         } else {
-            return chains[hash].get(key);
+            return chain.get(key, hash);
+        }
+    }
+
+    /**
+     * Finds the key once; a key that is not in the dictionary costs no exception.
+     *
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the dictionary
+     * @return is the value of the given key, or the default value if the key is not in the dictionary
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(K key, V defaultValue) {
+        migrateSome();
+        int hash = HashBucket.hashOf(key);
+        HashBucket<K, V> chain = findChain(hash);
+        if (stats != null) {
+            Object value = lookupRecorded(key, hash, chain);
+            return value == MISSING ? defaultValue : (V) value;
+        }
+
+        if (Objects.equals(chain, null)) {
+            return defaultValue;
+        }
+        return chain.getOrDefault(key, hash, defaultValue);
+    }
+
+    /**
+     * Looks the key up like `getOrDefault`, but also records whether the key was found and how
+     * many keys were compared.
+     *
+     * @return is the value of the key, or MISSING if the key is not in the dictionary
+     */
+    private Object lookupRecorded(K key, int hash, HashBucket<K, V> chain) {
+        if (Objects.equals(chain, null)) {
+            stats.recordLookup(0, false);
+            return MISSING;
+        }
+        if (chain instanceof CompactBucket) {
+            CompactBucket<K, V> bucket = (CompactBucket<K, V>) chain;
+            int index = bucket.indexOfKey(key, hash);
+            if (index < 0) {
+                stats.recordLookup(bucket.size(), false);
+                return MISSING;
+            }
+            stats.recordLookup(index + 1, true);
+            return bucket.valueAt(index);
+        }
+        if (chain instanceof TreeBucket) { // only the nodes on the search path are compared
+            TreeBucket<K, V> bucket = (TreeBucket<K, V>) chain;
+            TreeBucket.Node<K, V> node = bucket.findCounted(key, hash);
+            stats.recordLookup(bucket.nodesVisited(), node != null);
+            return node == null ? MISSING : node.value;
         }
+        HashBucket.Entry<K, V> entry = chain.findEntry(key, hash);
+        stats.recordLookup(chain.size(), entry != null);
+        return entry == null ? MISSING : entry.getValue();
     }
 
     /**
@@ -77,39 +329,288 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
      */
     @Override
     public V put(K key, V value) {
-        int hash = getHash(key);
-        if (Objects.equals(chains[hash], null)) {
-            chains[hash] = new ArrayDictionary<K, V>(bucketLength);
+        int hash = HashBucket.hashOf(key);
+        int index = chainForUpdate(hash);
+        // a single put on the chain both updates and inserts; its size tells us which one it was
+        int chainSize = chains[index].size();
+        V oldValue = chains[index].put(key, value, hash);
+        chainSizeChanged(index, chainSize);
+        return oldValue;
+    }
+
+    /**
+     * Gets the chain of a key ready to be changed: while an incremental resize is in progress the
+     * key's old chain is moved over first, and a missing chain is created.
+     *
+     * @param hash: the hash code of the key
+     * @return is the index of the key's chain in `chains`
+     */
+    private int chainForUpdate(int hash) {
+        if (oldChains != null) {
+            migrateChain(indexFor(hash, oldChains.length)); // the key has to be in the new chains first
+            migrateSome();
+        }
+        int index = indexFor(hash, tableSize);
+        if (Objects.equals(chains[index], null)) {
+            chains[index] = new CompactBucket<K, V>(bucketLength);
         }
-        if (!chains[hash].containsKey(key)) {
+        return index;
+    }
+
+    /**
+     * Updates the item count after an operation on the chain at the given index added or removed
+     * a pair (or did neither), then turns the chain into a tree or back, drops it if it is empty,
+     * and grows or shrinks the table as needed.
+     *
+     * @param previousChainSize: the size of the chain before the operation
+     */
+    private void chainSizeChanged(int index, int previousChainSize) {
+        int chainSize = chains[index].size();
+        if (chainSize > previousChainSize) {
             itemCount++;
+            treeifyIfNeeded(index);
+            if (((double) itemCount / tableSize) >= lambda && tableSize < MAXIMUM_TABLE_SIZE) { // resize and rehash the table
+                resize(powerOfTwoSizing ? powerOfTwoAtLeast(2 * tableSize) : nextPrime(2 * tableSize));
+            }
+            return;
+        }
+        if (chainSize == 0) { // an empty chain is no different from a missing one, so don't keep it around
+            chains[index] = null;
+        } else if (chainSize < previousChainSize) {
+            untreeifyIfNeeded(index);
+        }
+        if (chainSize < previousChainSize) {
+            itemCount--;
+            shrinkIfNeeded();
+        }
+    }
+
+    /**
+     * Shrinks the table if so many pairs have been removed that most chains are empty, so that
+     * walking the table costs time in proportion to the pairs that are left.
+     */
+    private void shrinkIfNeeded() {
+        if (tableSize > minimumTableSize && itemCount < tableSize * (lambda / SHRINK_DIVISOR)) {
+            int newTableSize = Math.max(minimumTableSize, tableSizeAbove((int) Math.ceil(itemCount / (lambda / 2))));
+            if (newTableSize < tableSize) {
+                resize(newTableSize);
+            }
+        }
+    }
+
+    /**
+     * Gives back the memory the dictionary does not need for the pairs it holds now: the table is
+     * shrunk to the smallest size that keeps the load factor below the resizing threshold (even
+     * below its initial size or a size given to `ensureCapacity`), empty chains are dropped and every chain is trimmed to its size.
+     * Finishes an incremental resize in progress.
+     */
+    public void trimToSize() {
+        finishMigration();
+        int newTableSize = tableSizeAbove((int) Math.ceil(itemCount / lambda));
+        if (newTableSize < tableSize) {
+            resize(newTableSize);
+            finishMigration();
+            minimumTableSize = Math.min(minimumTableSize, tableSize);
+        }
+        for (int i = 0; i < chains.length; i++) {
+            if (!Objects.equals(chains[i], null)) {
+                if (chains[i].size() == 0) {
+                    chains[i] = null;
+                } else {
+                    chains[i].trimToSize();
+                }
+            }
+        }
+    }
+
+    /*
+    The compute-style operations hash the key once and leave the rest to the key's chain, which
+    finds the key once; whether the chain grew or shrank tells how the item count changes.
+     */
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        int hash = HashBucket.hashOf(key);
+        int index = chainForUpdate(hash);
+        int chainSize = chains[index].size();
+        V oldValue = chains[index].putIfAbsent(key, value, hash);
+        chainSizeChanged(index, chainSize);
+        return oldValue;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        int hash = HashBucket.hashOf(key);
+        int index = chainForUpdate(hash);
+        int chainSize = chains[index].size();
+        V value = chains[index].computeIfAbsent(key, hash, mappingFunction);
+        chainSizeChanged(index, chainSize);
+        return value;
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int hash = HashBucket.hashOf(key);
+        int index = chainForUpdate(hash);
+        int chainSize = chains[index].size();
+        V value = chains[index].computeIfPresent(key, hash, remappingFunction);
+        chainSizeChanged(index, chainSize);
+        return value;
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int hash = HashBucket.hashOf(key);
+        int index = chainForUpdate(hash);
+        int chainSize = chains[index].size();
+        V value = chains[index].compute(key, hash, remappingFunction);
+        chainSizeChanged(index, chainSize);
+        return value;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        int hash = HashBucket.hashOf(key);
+        int index = chainForUpdate(hash);
+        int chainSize = chains[index].size();
+        V merged = chains[index].merge(key, hash, value, remappingFunction);
+        chainSizeChanged(index, chainSize);
+        return merged;
+    }
+
+    /**
+     * Turns the chain at the given index into a TreeBucket if it has grown too long to scan, so
+     * that many keys with colliding hash codes cannot make lookups linear.
+     */
+    private void treeifyIfNeeded(int index) {
+        HashBucket<K, V> chain = chains[index];
+        if (chain.size() > TREEIFY_THRESHOLD && chain instanceof CompactBucket) {
+            chains[index] = TreeBucket.of(chain);
+        }
+    }
+
+    /**
+     * Turns the chain at the given index back into a CompactBucket if it is a TreeBucket that
+     * has become short enough to scan.
+     */
+    private void untreeifyIfNeeded(int index) {
+        HashBucket<K, V> chain = chains[index];
+        if (chain.size() <= UNTREEIFY_THRESHOLD && chain instanceof TreeBucket) {
+            CompactBucket<K, V> bucket = new CompactBucket<>(chain.size());
+            chain.forEachEntry((hash, key, value) -> bucket.insertAbsent(key, value, hash));
+            chains[index] = bucket;
         }
-        if (((double) itemCount / tableSize) >= lambda) { // resize and rehash the table
+    }
+
+    /**
+     * Moves every pair into a new array of chains of the given size. With incremental resizing,
+     * the current chains are only set aside here and are moved over by later operations.
+     *
+     * @param newTableSize: the number of chains in the new table
+     */
+    private void resize(int newTableSize) {
+        finishMigration(); // the previous resize has to finish before a new one starts
 
-            // next we make new buckets for chains
-            IDictionary<K, V>[] oldChains = chains; // temp reference to chains
+        long startNanos = 0;
+        if (stats != null) {
+            stats.resizeCount++;
+            startNanos = System.nanoTime();
+        }
 
-            tableSize = nextPrime(2 * tableSize); // resize table
+        // next we make new buckets for chains
+        HashBucket<K, V>[] previousChains = chains; // temp reference to chains
 
-            chains = makeArrayOfChains(tableSize); //make new buckets with new size
+        tableSize = newTableSize; // resize table
 
-            Iterator<KVPair<K, V>> itr = new ChainedIterator<>(oldChains);
-            while (itr.hasNext()) { // rehash and re put pairs in buckets
-                KVPair<K, V> pair = itr.next();
-                int newHash = getHash(pair.getKey());
+        chains = makeArrayOfChains(tableSize); //make new buckets with new size
 
-                if (Objects.equals(chains[newHash], null)) {
-                    chains[newHash] = new ArrayDictionary<K, V>(bucketLength);
+        if (incrementalResizing) {
+            oldChains = previousChains;
+            migrationIndex = 0;
+        } else {
+            for (HashBucket<K, V> chain : previousChains) { // re put pairs in buckets by their stored hash codes
+                if (!Objects.equals(chain, null)) {
+                    chain.forEachEntry(this::putIntoNewChains);
                 }
-                chains[newHash].put(pair.getKey(), pair.getValue());
             }
-            hash = getHash(key); // recalculates hash for new table.
+        }
+        if (stats != null) {
+            stats.resizeNanos += System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Puts a pair that is not in `chains` yet into `chains` without touching the item count.
+     *
+     * @param hash: the hash code stored with the pair in its previous chain
+     */
+    private void putIntoNewChains(int hash, K key, V value) {
+        int newIndex = indexFor(hash, tableSize);
+
+        if (Objects.equals(chains[newIndex], null)) {
+            chains[newIndex] = new CompactBucket<K, V>(bucketLength);
+        }
+        chains[newIndex].insertAbsent(key, value, hash);
+        treeifyIfNeeded(newIndex);
+    }
+
+    /**
+     * Moves the pairs of the given old chain over to the new chains. Does nothing if that chain
+     * has already been moved. Finishes the incremental resize once every old chain is moved.
+     *
+     * @param index: the index of the chain in `oldChains`
+     */
+    private void migrateChain(int index) {
+        HashBucket<K, V> oldChain = oldChains[index];
+        if (!Objects.equals(oldChain, null)) {
+            long startNanos = stats != null ? System.nanoTime() : 0;
+            oldChains[index] = null;
+            oldChain.forEachEntry(this::putIntoNewChains);
+            if (stats != null) {
+                stats.resizeNanos += System.nanoTime() - startNanos;
+            }
+        }
+        if (index == migrationIndex) {
+            while (migrationIndex < oldChains.length && Objects.equals(oldChains[migrationIndex], null)) {
+                migrationIndex++;
+            }
+            if (migrationIndex == oldChains.length) { // everything has been moved over
+                oldChains = null;
+                migrationIndex = 0;
+            }
+        }
+    }
 
+    /**
+     * Moves every old chain that is left over to the new chains if an incremental resize is in
+     * progress.
+     */
+    private void finishMigration() {
+        while (oldChains != null) {
+            migrateChain(migrationIndex);
         }
-        if (Objects.equals(chains[hash], null)) {
-            chains[hash] = new ArrayDictionary<K, V>(bucketLength);
+    }
+
+    /**
+     * Moves a bounded number of old chains over to the new chains if an incremental resize is in
+     * progress.
+     */
+    private void migrateSome() {
+        int moves = MIGRATION_STEP;
+        int emptyVisits = MIGRATION_STEP * MIGRATION_EMPTY_VISITS;
+        while (oldChains != null && moves > 0 && emptyVisits > 0) {
+            if (Objects.equals(oldChains[migrationIndex], null)) {
+                migrationIndex++;
+                emptyVisits--;
+                if (migrationIndex == oldChains.length) {
+                    oldChains = null;
+                    migrationIndex = 0;
+                }
+            } else {
+                migrateChain(migrationIndex);
+                moves--;
+            }
         }
-        return chains[hash].put(key, value);
     }
 
     /**
@@ -118,16 +619,230 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
      * @return is the closest prime number of the given number
      *         NOTE: nextPrime will always return the next prime GREATER than the original number given
      */
-    private int nextPrime(int num) {
+    static int nextPrime(int num) {
         num += 1; // increment num, now to check if num is prime
-        for (int i = 2; i < num; i++) {
-            if (num % i == 0) {
-                num = nextPrime(num);
-            } // else continue with for loop; if we've reached end of for loop, num is prime I think
+        while (!isPrime(num)) {
+            num++;
         }
         return num;
     }
 
+    /**
+     * @param num: the number to check
+     * @return is true if the given number is prime; only divisors up to its square root are tried
+     */
+    private static boolean isPrime(int num) {
+        if (num < 2) {
+            return false;
+        }
+        if (num % 2 == 0) {
+            return num == 2;
+        }
+        for (int i = 3; (long) i * i <= num; i += 2) {
+            if (num % i == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes sure the given number of pairs fits without any further resizing. If the table has to
+     * grow, it is rehashed once, straight to the final size. The table also stops shrinking below
+     * that size when pairs are removed, until `trimToSize` is called.
+     *
+     * @param expectedSize: the number of pairs the dictionary is expected to hold
+     */
+    public void ensureCapacity(int expectedSize) {
+        minimumTableSize = Math.max(minimumTableSize, growFor(expectedSize));
+    }
+
+    /**
+     * Grows the table, if needed, so that the given number of pairs fits without any further
+     * resizing. Unlike `ensureCapacity`, the table may shrink again later.
+     *
+     * @return is the table size needed for the given number of pairs
+     */
+    private int growFor(int expectedSize) {
+        int neededTableSize = tableSizeAbove((int) Math.ceil(expectedSize / lambda));
+        if (neededTableSize > tableSize) {
+            resize(neededTableSize);
+            finishMigration(); // a bulk load should not leave a resize half done
+        }
+        return neededTableSize;
+    }
+
+    /**
+     * Puts every pair of the given dictionary into this one. The table is sized for all of them
+     * up front, so at most one rehash happens.
+     *
+     * @param other: the dictionary whose pairs get added to this one
+     */
+    public void putAll(IDictionary<? extends K, ? extends V> other) {
+        growFor(itemCount + other.size());
+        for (KVPair<? extends K, ? extends V> pair : other) {
+            put(pair.getKey(), pair.getValue());
+        }
+    }
+
+    /**
+     * Puts all of the given pairs into this dictionary. If the number of pairs is known up front,
+     * the table is sized for all of them before the first one is added.
+     *
+     * @param pairs: the pairs that get added to this dictionary
+     */
+    public void putAll(Iterable<? extends KVPair<? extends K, ? extends V>> pairs) {
+        // one spliterator for both the size and the pairs, so the pairs are only traversed once
+        Spliterator<? extends KVPair<? extends K, ? extends V>> spliterator = pairs.spliterator();
+        long knownSize = spliterator.getExactSizeIfKnown();
+        if (knownSize > 0) {
+            growFor((int) Math.min(itemCount + knownSize, Integer.MAX_VALUE));
+        }
+        spliterator.forEachRemaining(pair -> put(pair.getKey(), pair.getValue()));
+    }
+
+    /**
+     * @param keys: the keys of the new dictionary
+     * @param values: the values of the new dictionary; `values[i]` goes with `keys[i]`
+     * @return is a new dictionary holding the given pairs, built without any intermediate resizing
+     * @throws IllegalArgumentException: if the arrays are not the same length
+     */
+    public static <K, V> ChainedHashDictionary<K, V> of(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("there must be exactly one value per key");
+        }
+        ChainedHashDictionary<K, V> dictionary = new ChainedHashDictionary<>();
+        dictionary.growFor(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            dictionary.put(keys[i], values[i]);
+        }
+        return dictionary;
+    }
+
+    /**
+     * @param items: the items to build the dictionary from
+     * @param keyMapper: turns an item into its key
+     * @param valueMapper: turns an item into its value
+     * @return is a new dictionary holding a pair for every item; if the size of the stream is
+     *         known, the dictionary is sized for it up front
+     */
+    public static <T, K, V> ChainedHashDictionary<K, V> of(Stream<T> items, Function<? super T, ? extends K> keyMapper,
+                                                           Function<? super T, ? extends V> valueMapper) {
+        ChainedHashDictionary<K, V> dictionary = new ChainedHashDictionary<>();
+        Spliterator<T> spliterator = items.spliterator();
+        long knownSize = spliterator.getExactSizeIfKnown();
+        if (knownSize > 0) {
+            dictionary.growFor((int) Math.min(knownSize, Integer.MAX_VALUE));
+        }
+        spliterator.forEachRemaining(item -> dictionary.put(keyMapper.apply(item), valueMapper.apply(item)));
+        return dictionary;
+    }
+
+    /**
+     * Writes the dictionary to the given channel in a compact binary format that
+     * `readSnapshot` can turn back into an equal dictionary. Along with the pairs, the snapshot
+     * holds the size of the table and the hash code of every key, so reading it puts every pair
+     * straight into its chain without rehashing or resizing.
+     *
+     * The data goes to the channel in large blocks; the channel is not closed.
+     *
+     * @param keySerializer: writes the keys; null keys are handled by the snapshot itself
+     * @param valueSerializer: writes the values; null values are handled by the snapshot itself
+     * @throws IOException: if writing to the channel fails
+     */
+    public void writeSnapshot(WritableByteChannel channel, SnapshotSerializer<? super K> keySerializer,
+                              SnapshotSerializer<? super V> valueSerializer) throws IOException {
+        finishMigration(); // so that every pair is in `chains`
+        SnapshotWriter writer = new SnapshotWriter(channel);
+        writer.writeInt(SNAPSHOT_MAGIC);
+        writer.writeInt(SNAPSHOT_VERSION);
+        writer.writeDouble(lambda);
+        writer.writeInt(tableSize);
+        writer.writeInt(minimumTableSize);
+        writer.writeInt(bucketLength);
+        writer.writeInt((incrementalResizing ? SNAPSHOT_INCREMENTAL_RESIZING : 0)
+                | (powerOfTwoSizing ? SNAPSHOT_POWER_OF_TWO_SIZING : 0));
+        writer.writeInt(itemCount);
+        try {
+            for (int i = 0; i < tableSize; i++) {
+                if (!Objects.equals(chains[i], null) && chains[i].size() > 0) {
+                    writer.writeInt(i);
+                    writer.writeInt(chains[i].size());
+                    chains[i].forEachEntry((hash, key, value) -> {
+                        try {
+                            writer.writeInt(hash);
+                            writer.writeValue(keySerializer, key);
+                            writer.writeValue(valueSerializer, value);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads back a dictionary written by `writeSnapshot`. It has the same table size and settings
+     * as the one that was written, and every pair is put straight into the chain it was in.
+     *
+     * The hash codes of the keys are not computed again, so the keys must have the same hash
+     * codes in every run of the program, as strings and boxed numbers do. Keys that use
+     * Object.hashCode, such as enum constants, cannot be read back this way.
+     *
+     * @param keySerializer: reads the keys; must match the one the snapshot was written with
+     * @param valueSerializer: reads the values; must match the one the snapshot was written with
+     * @throws IOException: if reading from the channel fails, or it does not hold a snapshot this
+     *                      version can read
+     */
+    public static <K, V> ChainedHashDictionary<K, V> readSnapshot(ReadableByteChannel channel,
+                                                                  SnapshotSerializer<K> keySerializer,
+                                                                  SnapshotSerializer<V> valueSerializer) throws IOException {
+        SnapshotReader reader = new SnapshotReader(channel);
+        if (reader.readInt() != SNAPSHOT_MAGIC || reader.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("the channel does not hold a dictionary snapshot this version can read");
+        }
+        double lambda = reader.readDouble();
+        int tableSize = reader.readInt();
+        int minimumTableSize = reader.readInt();
+        int bucketLength = reader.readInt();
+        int flags = reader.readInt();
+        int itemCount = reader.readInt();
+        boolean powerOfTwoSizing = (flags & SNAPSHOT_POWER_OF_TWO_SIZING) != 0;
+        if (!(lambda > 0) || tableSize <= 0 || tableSize > MAXIMUM_TABLE_SIZE || itemCount < 0
+                || (powerOfTwoSizing && Integer.bitCount(tableSize) != 1)) {
+            throw new IOException("the snapshot is corrupt: its header is not valid");
+        }
+        ChainedHashDictionary<K, V> dictionary = new ChainedHashDictionary<>(lambda, tableSize, bucketLength,
+                (flags & SNAPSHOT_INCREMENTAL_RESIZING) != 0, powerOfTwoSizing);
+        dictionary.minimumTableSize = minimumTableSize;
+
+        int pairsRead = 0;
+        while (pairsRead < itemCount) {
+            int index = reader.readInt();
+            int chainSize = reader.readInt();
+            if (index < 0 || index >= tableSize || chainSize <= 0 || chainSize > itemCount - pairsRead
+                    || !Objects.equals(dictionary.chains[index], null)) {
+                throw new IOException("the snapshot is corrupt: a chain is not valid");
+            }
+            HashBucket<K, V> chain = chainSize > TREEIFY_THRESHOLD
+                    ? new TreeBucket<>() : new CompactBucket<>(Math.max(chainSize, bucketLength));
+            for (int i = 0; i < chainSize; i++) {
+                int hash = reader.readInt();
+                K key = reader.readValue(keySerializer);
+                V value = reader.readValue(valueSerializer);
+                chain.insertAbsent(key, value, hash);
+            }
+            dictionary.chains[index] = chain;
+            pairsRead += chainSize;
+        }
+        dictionary.itemCount = itemCount;
+        return dictionary;
+    }
+
 
     /**
      *
@@ -137,12 +852,19 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
      */
     @Override
     public V remove(K key) {
-        int hash = getHash(key);
-        if (Objects.equals(chains[hash], null)) {
+        int hash = HashBucket.hashOf(key);
+        if (oldChains != null) {
+            migrateChain(indexFor(hash, oldChains.length));
+            migrateSome();
+        }
+        int index = indexFor(hash, tableSize);
+        if (Objects.equals(chains[index], null)) {
             return null;
         } else {
-            itemCount--;
-            return chains[hash].remove(key);
+            int chainSize = chains[index].size();
+            V removedValue = chains[index].remove(key, hash);
+            chainSizeChanged(index, chainSize); // only counts down if the key was there
+            return removedValue;
         }
     }
 
@@ -153,11 +875,13 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
      */
     @Override
     public boolean containsKey(K key) {
-        int hash = getHash(key);
-        if (Objects.equals(chains[hash], null)) {
+        migrateSome();
+        int hash = HashBucket.hashOf(key);
+        HashBucket<K, V> chain = findChain(hash);
+        if (Objects.equals(chain, null)) {
             return false;
         }
-        return chains[hash].containsKey(key);
+        return chain.containsKey(key, hash);
 
     }
 
@@ -172,15 +896,149 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
 
     /**
      *
-     * @return creates an iterator for the dictionary
+     * @return creates an iterator for the dictionary. An incremental resize in progress is
+     *         finished first, so lookups made while iterating cannot move pairs into chains the
+     *         iterator has already passed.
      *         Warning: does not allow user to modify contents
      */
     @Override
     public Iterator<KVPair<K, V>> iterator() {
         // Note: you do not need to change this method
+        finishMigration();
         return new ChainedIterator<>(this.chains);
     }
 
+    /**
+     * Calls the given action with the key and value of every pair, walking the chains directly so
+     * that no KVPair or iterator is created per pair. An incremental resize in progress is
+     * finished first, so lookups made by the action cannot move pairs around during the walk.
+     *
+     * @param action: what to do with every pair; must not modify the dictionary
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        finishMigration();
+        for (HashBucket<K, V> chain : chains) {
+            if (!Objects.equals(chain, null)) {
+                chain.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * @return is a spliterator that splits the table into halves of its chains, so a parallel
+     *         stream can hand every thread its own range of chains. It is SIZED until it is
+     *         split; the halves only estimate their sizes. Like `forEach`, it finishes an
+     *         incremental resize in progress first, so it only has to cover one array of chains.
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Spliterator<KVPair<K, V>> spliterator() {
+        finishMigration();
+        return new ChainSpliterator<>(chains, 0, chains.length, itemCount, true);
+    }
+
+    /*
+    The bulk operations below split the chains into ranges and, if the dictionary holds at least
+    `parallelismThreshold` pairs, run the ranges as fork-join tasks in the common pool. A
+    threshold of Long.MAX_VALUE keeps an operation on the calling thread; a threshold of 1 uses
+    as many threads as possible. Like `forEach`, they finish an incremental resize in progress
+    first, and the functions passed in must not add or remove pairs.
+     */
+
+    /**
+     * Calls the given action with the key and value of every pair, possibly from several threads
+     * at once and in no particular order.
+     *
+     * @param parallelismThreshold: the number of pairs needed to run the operation in parallel
+     * @param action: what to do with every pair; must be safe to call from several threads
+     */
+    public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+        finishMigration();
+        runBulkTask(parallelismThreshold, new ChainActionTask<>(chains, 0, chains.length, bulkBatchSize(),
+                chain -> chain.forEach(action)));
+    }
+
+    /**
+     * @param parallelismThreshold: the number of pairs needed to run the operation in parallel
+     * @param transformer: turns a value (possibly null) into what gets reduced; pairs it returns
+     *                    null for are skipped
+     * @param reducer: combines two transformed values; must be associative
+     * @return is all of the non-null transformed values combined with the reducer, or null if
+     *         there are none
+     */
+    public <U> U reduceValues(long parallelismThreshold, Function<? super V, ? extends U> transformer,
+                              BiFunction<? super U, ? super U, ? extends U> reducer) {
+        finishMigration();
+        return runBulkTask(parallelismThreshold, new ReduceTask<>(chains, 0, chains.length, bulkBatchSize(),
+                transformer, reducer));
+    }
+
+    /**
+     * @param parallelismThreshold: the number of pairs needed to run the operation in parallel
+     * @param reducer: combines two values; must be associative
+     * @return is all of the non-null values combined with the reducer, or null if there are none
+     */
+    public V reduceValues(long parallelismThreshold, BiFunction<? super V, ? super V, ? extends V> reducer) {
+        return reduceValues(parallelismThreshold, Function.identity(), reducer);
+    }
+
+    /**
+     * Calls the given function on the pairs until it returns something other than null. Once one
+     * thread has found a result, the others stop at their next chain.
+     *
+     * @param parallelismThreshold: the number of pairs needed to run the operation in parallel
+     * @param searchFunction: returns null for pairs that are not what is being searched for
+     * @return is a non-null result of the search function, or null if it returned null for every
+     *         pair; if several pairs match, any one of their results may be returned
+     */
+    public <U> U search(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+        finishMigration();
+        return runBulkTask(parallelismThreshold, new SearchTask<>(chains, 0, chains.length, bulkBatchSize(),
+                searchFunction, new AtomicReference<>()));
+    }
+
+    /**
+     * Replaces the value of every pair with the result of the given function on that pair, in
+     * place and possibly from several threads at once.
+     *
+     * @param parallelismThreshold: the number of pairs needed to run the operation in parallel
+     * @param function: computes the new value of a pair from its key and current value
+     */
+    public void replaceAll(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends V> function) {
+        finishMigration();
+        runBulkTask(parallelismThreshold, new ChainActionTask<>(chains, 0, chains.length, bulkBatchSize(),
+                chain -> chain.replaceAll(function)));
+    }
+
+    /**
+     * @return is the number of chains a bulk task handles without splitting any further; about
+     *         four tasks per thread of the common pool
+     */
+    private int bulkBatchSize() {
+        return Math.max(1, chains.length / (ForkJoinPool.getCommonPoolParallelism() * 4));
+    }
+
+    /**
+     * @return is the result of the given task, run in the common pool if the dictionary holds
+     *         enough pairs and on the calling thread otherwise
+     */
+    private <U> U runBulkTask(long parallelismThreshold, BulkTask<K, V, U> task) {
+        if (itemCount < parallelismThreshold) {
+            return task.visitChains();
+        }
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * @return is a cursor over the pairs of the dictionary that does not create an object per
+     *         pair and can be reset to scan again. Like `forEach`, it finishes an incremental
+     *         resize in progress whenever it starts a walk.
+     */
+    public DictionaryCursor<K, V> cursor() {
+        return new ChainedCursor<>(this);
+    }
+
     /**
      *
      * @return is a string representation of the dictionary
@@ -250,4 +1108,398 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
             }
         }
     }
+
+    /**
+     * A bulk operation over the chains in the range [lo, hi) of a table. Splits the range in
+     * halves while it holds more than `batchSize` chains and combines the results of the halves.
+     */
+    private abstract static class BulkTask<K, V, U> extends RecursiveTask<U> {
+        private static final long serialVersionUID = 1L;
+
+        final HashBucket<K, V>[] chains;
+        final int lo;
+        final int hi;
+        final int batchSize;
+
+        BulkTask(HashBucket<K, V>[] chains, int lo, int hi, int batchSize) {
+            this.chains = chains;
+            this.lo = lo;
+            this.hi = hi;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected U compute() {
+            if (hi - lo <= batchSize || isFinished()) {
+                return visitChains();
+            }
+            int middle = (lo + hi) >>> 1;
+            BulkTask<K, V, U> firstHalf = subtask(lo, middle);
+            firstHalf.fork();
+            U second = subtask(middle, hi).compute();
+            U first = firstHalf.join();
+            if (first == null) {
+                return second;
+            }
+            return second == null ? first : combine(first, second);
+        }
+
+        /**
+         * @return is the result for the chains in the range, computed on the current thread
+         */
+        abstract U visitChains();
+
+        abstract BulkTask<K, V, U> subtask(int lo, int hi);
+
+        /**
+         * @return is the result for two neighbouring ranges; only called if neither is null
+         */
+        abstract U combine(U first, U second);
+
+        /**
+         * @return is true if the remaining chains do not need to be visited anymore
+         */
+        boolean isFinished() {
+            return false;
+        }
+    }
+
+    /**
+     * Does something with every chain in the range; has no result.
+     */
+    private static class ChainActionTask<K, V> extends BulkTask<K, V, Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final Consumer<HashBucket<K, V>> chainAction;
+
+        ChainActionTask(HashBucket<K, V>[] chains, int lo, int hi, int batchSize,
+                        Consumer<HashBucket<K, V>> chainAction) {
+            super(chains, lo, hi, batchSize);
+            this.chainAction = chainAction;
+        }
+
+        @Override
+        Void visitChains() {
+            for (int i = lo; i < hi; i++) {
+                if (!Objects.equals(chains[i], null)) {
+                    chainAction.accept(chains[i]);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        BulkTask<K, V, Void> subtask(int lo, int hi) {
+            return new ChainActionTask<>(chains, lo, hi, batchSize, chainAction);
+        }
+
+        @Override
+        Void combine(Void first, Void second) {
+            return null;
+        }
+    }
+
+    private static class ReduceTask<K, V, U> extends BulkTask<K, V, U> {
+        private static final long serialVersionUID = 1L;
+
+        private final Function<? super V, ? extends U> transformer;
+        private final BiFunction<? super U, ? super U, ? extends U> reducer;
+        // what visitChains has reduced so far
+        private U reduced;
+
+        ReduceTask(HashBucket<K, V>[] chains, int lo, int hi, int batchSize, Function<? super V, ? extends U> transformer,
+                   BiFunction<? super U, ? super U, ? extends U> reducer) {
+            super(chains, lo, hi, batchSize);
+            this.transformer = transformer;
+            this.reducer = reducer;
+        }
+
+        @Override
+        U visitChains() {
+            reduced = null;
+            BiConsumer<K, V> accumulator = this::accumulate;
+            for (int i = lo; i < hi; i++) {
+                if (!Objects.equals(chains[i], null)) {
+                    chains[i].forEach(accumulator);
+                }
+            }
+            return reduced;
+        }
+
+        private void accumulate(K key, V value) {
+            U transformed = transformer.apply(value);
+            if (transformed != null) {
+                reduced = reduced == null ? transformed : reducer.apply(reduced, transformed);
+            }
+        }
+
+        @Override
+        BulkTask<K, V, U> subtask(int lo, int hi) {
+            return new ReduceTask<>(chains, lo, hi, batchSize, transformer, reducer);
+        }
+
+        @Override
+        U combine(U first, U second) {
+            return reducer.apply(first, second);
+        }
+    }
+
+    private static class SearchTask<K, V, U> extends BulkTask<K, V, U> {
+        private static final long serialVersionUID = 1L;
+
+        private final BiFunction<? super K, ? super V, ? extends U> searchFunction;
+        // shared by every task of one search, so all of them can stop once any of them finds a result
+        private final AtomicReference<U> result;
+
+        SearchTask(HashBucket<K, V>[] chains, int lo, int hi, int batchSize,
+                   BiFunction<? super K, ? super V, ? extends U> searchFunction, AtomicReference<U> result) {
+            super(chains, lo, hi, batchSize);
+            this.searchFunction = searchFunction;
+            this.result = result;
+        }
+
+        @Override
+        U visitChains() {
+            for (int i = lo; i < hi && !isFinished(); i++) {
+                if (!Objects.equals(chains[i], null)) {
+                    U found = chains[i].search(searchFunction);
+                    if (found != null) {
+                        result.compareAndSet(null, found);
+                        return found;
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        boolean isFinished() {
+            return result.get() != null;
+        }
+
+        @Override
+        BulkTask<K, V, U> subtask(int lo, int hi) {
+            return new SearchTask<>(chains, lo, hi, batchSize, searchFunction, result);
+        }
+
+        @Override
+        U combine(U first, U second) {
+            return first;
+        }
+    }
+
+    /**
+     * Covers the chains in the range [index, fence) of a table.
+     */
+    private static class ChainSpliterator<K, V> implements Spliterator<KVPair<K, V>> {
+        private final HashBucket<K, V>[] chains;
+        private int index;
+        private final int fence;
+        // the number of pairs not handed out yet, or an estimate of it once split
+        private long estimatedSize;
+        // whether estimatedSize is the exact number of pairs; only true before any split
+        private boolean exactSize;
+        // the pairs of chains[index - 1] that have not been handed out yet by tryAdvance
+        private Iterator<KVPair<K, V>> chainIterator;
+
+        public ChainSpliterator(HashBucket<K, V>[] chains, int index, int fence, long estimatedSize,
+                                boolean exactSize) {
+            this.chains = chains;
+            this.index = index;
+            this.fence = fence;
+            this.estimatedSize = estimatedSize;
+            this.exactSize = exactSize;
+            this.chainIterator = null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super KVPair<K, V>> action) {
+            while (true) {
+                if (chainIterator != null) {
+                    if (chainIterator.hasNext()) {
+                        if (estimatedSize > 0) {
+                            estimatedSize--;
+                        }
+                        action.accept(chainIterator.next());
+                        return true;
+                    }
+                    chainIterator = null;
+                }
+                if (index >= fence) {
+                    return false;
+                }
+                HashBucket<K, V> chain = chains[index++];
+                if (!Objects.equals(chain, null) && chain.size() > 0) {
+                    chainIterator = chain.iterator();
+                }
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super KVPair<K, V>> action) {
+            if (chainIterator != null) {
+                chainIterator.forEachRemaining(action);
+                chainIterator = null;
+            }
+            for (; index < fence; index++) {
+                HashBucket<K, V> chain = chains[index];
+                if (!Objects.equals(chain, null)) {
+                    chain.forEach((key, value) -> action.accept(new KVPair<>(key, value)));
+                }
+            }
+            estimatedSize = 0;
+        }
+
+        @Override
+        public Spliterator<KVPair<K, V>> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (index >= middle || chainIterator != null) { // too small, or in the middle of a chain
+                return null;
+            }
+            estimatedSize >>>= 1;
+            exactSize = false;
+            ChainSpliterator<K, V> firstHalf = new ChainSpliterator<>(chains, index, middle, estimatedSize, false);
+            index = middle;
+            return firstHalf;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimatedSize;
+        }
+
+        @Override
+        public int characteristics() {
+            return (exactSize ? Spliterator.SIZED : 0) | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * Walks the chains in order, reading CompactBucket chains by index and TreeBucket chains
+     * with a path array that is kept between walks.
+     */
+    private static class ChainedCursor<K, V> implements DictionaryCursor<K, V> {
+        private final ChainedHashDictionary<K, V> dictionary;
+        private HashBucket<K, V>[] chains;
+        private int chainIndex;
+
+        // the chain being walked if it is a CompactBucket, and the index of the current pair in it
+        private CompactBucket<K, V> arrayChain;
+        private int pairIndex;
+
+        // while a TreeBucket is being walked, the nodes whose left subtree is being visited, innermost last
+        private TreeBucket.Node<K, V>[] path;
+        private int pathSize;
+
+        private boolean onPair;
+        private K key;
+        private V value;
+
+        @SuppressWarnings("unchecked")
+        public ChainedCursor(ChainedHashDictionary<K, V> dictionary) {
+            this.dictionary = dictionary;
+            path = (TreeBucket.Node<K, V>[]) new TreeBucket.Node[16];
+            reset();
+        }
+
+        @Override
+        public void reset() {
+            dictionary.finishMigration();
+            chains = dictionary.chains;
+            chainIndex = -1;
+            arrayChain = null;
+            pairIndex = 0;
+            Arrays.fill(path, 0, pathSize, null);
+            pathSize = 0;
+            setPair(false, null, null);
+        }
+
+        @Override
+        public boolean advance() {
+            while (true) {
+                if (arrayChain != null) {
+                    pairIndex++;
+                    if (pairIndex < arrayChain.size()) {
+                        setPair(true, arrayChain.keyAt(pairIndex), arrayChain.valueAt(pairIndex));
+                        return true;
+                    }
+                    arrayChain = null;
+                } else if (pathSize > 0) {
+                    TreeBucket.Node<K, V> node = path[--pathSize];
+                    path[pathSize] = null;
+                    pushLeftSpine(node.right);
+                    setPair(true, node.key, node.value);
+                    return true;
+                }
+
+                if (chainIndex + 1 >= chains.length) { // every chain has been walked
+                    setPair(false, null, null);
+                    return false;
+                }
+                chainIndex++;
+                HashBucket<K, V> chain = chains[chainIndex];
+                if (chain instanceof CompactBucket) {
+                    arrayChain = (CompactBucket<K, V>) chain;
+                    pairIndex = -1;
+                } else if (chain instanceof TreeBucket) {
+                    pushLeftSpine(((TreeBucket<K, V>) chain).root);
+                }
+            }
+        }
+
+        private void pushLeftSpine(TreeBucket.Node<K, V> node) {
+            while (node != null) {
+                if (pathSize == path.length) {
+                    path = Arrays.copyOf(path, 2 * path.length);
+                }
+                path[pathSize++] = node;
+                node = node.left;
+            }
+        }
+
+        private void setPair(boolean onPair, K key, V value) {
+            this.onPair = onPair;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K key() {
+            if (!onPair) {
+                throw new IllegalStateException("the cursor is not on a pair");
+            }
+            return key;
+        }
+
+        @Override
+        public V value() {
+            if (!onPair) {
+                throw new IllegalStateException("the cursor is not on a pair");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * The running totals behind `statistics()`.
+     */
+    private static class StatisticsRecorder {
+        long lookups;
+        long hits;
+        long totalProbes;
+        int maxProbeLength;
+        int resizeCount;
+        long resizeNanos;
+
+        void recordLookup(int probes, boolean hit) {
+            lookups++;
+            if (hit) {
+                hits++;
+            }
+            totalProbes += probes;
+            if (probes > maxProbeLength) {
+                maxProbeLength = probes;
+            }
+        }
+    }
 }
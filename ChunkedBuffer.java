@@ -0,0 +1,87 @@
+package datastructures.dictionaries;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A growable run of bytes made of equally sized ByteBuffer chunks, addressed by `long` positions
+ * so it can go past the 2GB limit of a single buffer. Where the chunks come from (direct memory,
+ * a mapped file, ...) is up to the allocator.
+ */
+final class ChunkedBuffer {
+    /**
+     * Creates the chunk with the given index. Chunks are always requested in order.
+     */
+    interface ChunkAllocator {
+        ByteBuffer allocate(int chunkIndex, int chunkBytes);
+    }
+
+    private final int chunkBytes;
+    private final ChunkAllocator allocator;
+    private ByteBuffer[] chunks;
+    private int chunkCount;
+
+    ChunkedBuffer(int chunkBytes, ChunkAllocator allocator) {
+        this.chunkBytes = chunkBytes;
+        this.allocator = allocator;
+        chunks = new ByteBuffer[4];
+        chunkCount = 0;
+    }
+
+    /**
+     * @return is a buffer whose chunks are allocated outside of the heap
+     */
+    static ChunkedBuffer direct(int chunkBytes) {
+        return new ChunkedBuffer(chunkBytes, (chunkIndex, bytes) -> ByteBuffer.allocateDirect(bytes));
+    }
+
+    int chunkBytes() {
+        return chunkBytes;
+    }
+
+    long capacity() {
+        return (long) chunkCount * chunkBytes;
+    }
+
+    /**
+     * Adds chunks until at least the given number of bytes can be addressed.
+     */
+    void ensureCapacity(long bytes) {
+        while (capacity() < bytes) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, 2 * chunks.length);
+            }
+            chunks[chunkCount] = allocator.allocate(chunkCount, chunkBytes);
+            chunkCount++;
+        }
+    }
+
+    /**
+     * @return is the chunk that holds the byte at the given position
+     */
+    ByteBuffer chunk(long position) {
+        return chunks[(int) (position / chunkBytes)];
+    }
+
+    /**
+     * @return is where the byte at the given position sits within its chunk
+     */
+    int offset(long position) {
+        return (int) (position % chunkBytes);
+    }
+
+    int getInt(long position) {
+        return chunk(position).getInt(offset(position));
+    }
+
+    void putInt(long position, int value) {
+        chunk(position).putInt(offset(position), value);
+    }
+
+    void forEachChunk(Consumer<ByteBuffer> action) {
+        for (int i = 0; i < chunkCount; i++) {
+            action.accept(chunks[i]);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package datastructures.dictionaries;
+
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static java.util.Arrays.copyOf;
+
+/**
+ * A chain of ChainedHashDictionary that takes as little memory as it can for the one or two
+ * pairs a chain usually holds at a reasonable load factor.
+ *
+ * The first pair is kept in fields of the bucket itself, so a chain with a single pair is one
+ * small object. The other pairs go into arrays that are only made once a second pair arrives and
+ * that grow by doubling from there. No object is made per pair.
+ */
+final class CompactBucket<K, V> extends HashBucket<K, V> {
+    private int size;
+
+    // the first pair
+    private int firstHash;
+    private K firstKey;
+    private V firstValue;
+
+    // the other pairs: pair i (i >= 1) has its key at rest[2 * (i - 1)], its value right after
+    // it, and its hash code at restHashes[i - 1]. Both are null until there is a second pair.
+    private Object[] rest;
+    private int[] restHashes;
+
+    // how many pairs `rest` has room for when it is first made
+    private final int initialRestCapacity;
+
+    /**
+     * @param initialCapacity: how many pairs the bucket can hold before it first has to grow;
+     *                         the first one never needs an array
+     */
+    CompactBucket(int initialCapacity) {
+        size = 0;
+        rest = null;
+        restHashes = null;
+        initialRestCapacity = Math.max(1, initialCapacity - 1);
+    }
+
+    /**
+     * @param key: the item who's index the user wishes to find
+     * @param hash: the hash code of the key, see HashBucket
+     * @return is the index of the given key, or -1 if the key does not exist in the bucket
+     */
+    int indexOfKey(K key, int hash) {
+        if (size == 0) {
+            return -1;
+        }
+        if (firstHash == hash && Objects.equals(key, firstKey)) {
+            return 0;
+        }
+        for (int i = 1; i < size; i++) {
+            if (restHashes[i - 1] == hash && Objects.equals(key, rest[2 * (i - 1)])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int hashAt(int index) {
+        return index == 0 ? firstHash : restHashes[index - 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    K keyAt(int index) {
+        return index == 0 ? firstKey : (K) rest[2 * (index - 1)];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int index) {
+        return index == 0 ? firstValue : (V) rest[2 * (index - 1) + 1];
+    }
+
+    private void setValueAt(int index, V value) {
+        if (index == 0) {
+            firstValue = value;
+        } else {
+            rest[2 * (index - 1) + 1] = value;
+        }
+    }
+
+    private void setPairAt(int index, int hash, K key, V value) {
+        if (index == 0) {
+            firstHash = hash;
+            firstKey = key;
+            firstValue = value;
+        } else {
+            restHashes[index - 1] = hash;
+            rest[2 * (index - 1)] = key;
+            rest[2 * (index - 1) + 1] = value;
+        }
+    }
+
+    /**
+     * Takes out the pair at the given index by moving the last pair into its place.
+     */
+    private void removeAt(int index) {
+        int last = size - 1;
+        if (index != last) {
+            setPairAt(index, hashAt(last), keyAt(last), valueAt(last));
+        }
+        setPairAt(last, 0, null, null);
+        size--;
+    }
+
+    @Override
+    V get(K key, int hash) {
+        int index = indexOfKey(key, hash);
+        if (index < 0) {
+            throw new NoSuchKeyException();
+        }
+        return valueAt(index);
+    }
+
+    @Override
+    V put(K key, V value, int hash) {
+        int index = indexOfKey(key, hash);
+        if (index >= 0) {
+            V oldValue = valueAt(index);
+            setValueAt(index, value);
+            return oldValue;
+        }
+        insertAbsent(key, value, hash);
+        return null;
+    }
+
+    @Override
+    void insertAbsent(K key, V value, int hash) {
+        if (size > 0) {
+            if (rest == null) {
+                rest = new Object[2 * initialRestCapacity];
+                restHashes = new int[initialRestCapacity];
+            } else if (size - 1 == restHashes.length) {
+                rest = copyOf(rest, 2 * rest.length);
+                restHashes = copyOf(restHashes, 2 * restHashes.length);
+            }
+        }
+        setPairAt(size, hash, key, value);
+        size++;
+    }
+
+    @Override
+    V remove(K key, int hash) {
+        int index = indexOfKey(key, hash);
+        if (index < 0) {
+            return null;
+        }
+        V removedValue = valueAt(index);
+        removeAt(index);
+        return removedValue;
+    }
+
+    @Override
+    boolean containsKey(K key, int hash) {
+        return indexOfKey(key, hash) >= 0;
+    }
+
+    @Override
+    Entry<K, V> findEntry(K key, int hash) {
+        int index = indexOfKey(key, hash);
+        return index < 0 ? null : new IndexEntry(index);
+    }
+
+    /*
+    The bucket has no objects to hand out for its pairs, so it does the operations HashBucket
+    builds on findEntry by index instead.
+     */
+
+    @Override
+    V getOrDefault(K key, int hash, V defaultValue) {
+        int index = indexOfKey(key, hash);
+        return index < 0 ? defaultValue : valueAt(index);
+    }
+
+    @Override
+    V putIfAbsent(K key, V value, int hash) {
+        int index = indexOfKey(key, hash);
+        if (index >= 0) {
+            return valueAt(index);
+        }
+        insertAbsent(key, value, hash);
+        return null;
+    }
+
+    @Override
+    V computeIfAbsent(K key, int hash, Function<? super K, ? extends V> mappingFunction) {
+        int index = indexOfKey(key, hash);
+        if (index >= 0) {
+            return valueAt(index);
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            insertAbsent(key, value, hash);
+        }
+        return value;
+    }
+
+    @Override
+    V computeIfPresent(K key, int hash, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int index = indexOfKey(key, hash);
+        if (index < 0) {
+            return null;
+        }
+        V value = remappingFunction.apply(key, valueAt(index));
+        if (value == null) {
+            removeAt(index);
+        } else {
+            setValueAt(index, value);
+        }
+        return value;
+    }
+
+    @Override
+    V compute(K key, int hash, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        int index = indexOfKey(key, hash);
+        V value = remappingFunction.apply(key, index < 0 ? null : valueAt(index));
+        if (index < 0) {
+            if (value != null) {
+                insertAbsent(key, value, hash);
+            }
+        } else if (value == null) {
+            removeAt(index);
+        } else {
+            setValueAt(index, value);
+        }
+        return value;
+    }
+
+    @Override
+    V merge(K key, int hash, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        int index = indexOfKey(key, hash);
+        if (index < 0) {
+            insertAbsent(key, value, hash);
+            return value;
+        }
+        V merged = remappingFunction.apply(valueAt(index), value);
+        if (merged == null) {
+            removeAt(index);
+        } else {
+            setValueAt(index, merged);
+        }
+        return merged;
+    }
+
+    @Override
+    void trimToSize() {
+        if (size <= 1) {
+            rest = null;
+            restHashes = null;
+        } else if (size - 1 < restHashes.length) {
+            rest = copyOf(rest, 2 * (size - 1));
+            restHashes = copyOf(restHashes, size - 1);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keyAt(i), valueAt(i));
+        }
+    }
+
+    @Override
+    void forEachEntry(EntryVisitor<K, V> visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(hashAt(i), keyAt(i), valueAt(i));
+        }
+    }
+
+    @Override
+    <U> U search(BiFunction<? super K, ? super V, ? extends U> function) {
+        for (int i = 0; i < size; i++) {
+            U result = function.apply(keyAt(i), valueAt(i));
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        for (int i = 0; i < size; i++) {
+            setValueAt(i, function.apply(keyAt(i), valueAt(i)));
+        }
+    }
+
+    /**
+     *
+     * @return creates an iterator for the bucket
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new Iterator<KVPair<K, V>>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public KVPair<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                KVPair<K, V> pair = new KVPair<>(keyAt(index), valueAt(index));
+                index++;
+                return pair;
+            }
+        };
+    }
+
+    /**
+     * The pair at an index, for callers of findEntry. Only valid until the bucket is changed.
+     */
+    private class IndexEntry implements Entry<K, V> {
+        private final int index;
+
+        IndexEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public V getValue() {
+            return valueAt(index);
+        }
+
+        @Override
+        public void setValue(V value) {
+            setValueAt(index, value);
+        }
+    }
+}
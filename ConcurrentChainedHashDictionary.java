@@ -0,0 +1,475 @@
+package datastructures.dictionaries;
+
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread-safe version of ChainedHashDictionary.
+ *
+ * The chains are split into stripes, each guarded by its own read-write lock, so threads that
+ * work on different stripes never wait on each other. The size is kept in a striped counter.
+ * Writers also pass through one of a set of write gates, which readers never touch. A resize
+ * closes every gate, which waits for the writes in progress and keeps new ones out, and then
+ * builds the new table without taking any stripe lock. Readers keep going on the old table until
+ * the new one is published, and never wait behind a writer that is waiting for the resize.
+ *
+ * getOrDefault and the compute-style operations look the key up once under the lock of its
+ * stripe, so each of them is atomic. The functions given to the compute-style operations run
+ * while that lock is held; they should be short and must not modify the dictionary.
+ *
+ * The iterator is weakly consistent: it never throws because of concurrent updates, and it
+ * reflects every chain as it was at the moment the iterator reached it.
+ *
+ * @see IDictionary for more details on what each method should do
+ * @see ChainedHashDictionary
+ */
+public class ConcurrentChainedHashDictionary<K, V> implements IDictionary<K, V> {
+    private static final double DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD = 0.75;
+    private static final int DEFAULT_INITIAL_CHAIN_COUNT = 101;
+    private static final int DEFAULT_INITIAL_CHAIN_CAPACITY = 10;
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+    volatile IDictionary<K, V>[] chains;
+
+    private final ReentrantReadWriteLock[] locks;
+    // writers hold a gate's read lock; a resize holds the write lock of every gate
+    private final ReentrantReadWriteLock[] writeGates;
+    private final LongAdder itemCount;
+    private final AtomicBoolean resizing;
+    private final double lambda;
+    private final int bucketLength;
+
+    public ConcurrentChainedHashDictionary() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param concurrencyLevel: the number of lock stripes, i.e. roughly how many threads are
+     *                          expected to update the dictionary at the same time
+     */
+    public ConcurrentChainedHashDictionary(int concurrencyLevel) {
+        this(DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD, DEFAULT_INITIAL_CHAIN_COUNT, DEFAULT_INITIAL_CHAIN_CAPACITY,
+                concurrencyLevel);
+    }
+
+    public ConcurrentChainedHashDictionary(double resizingLoadFactorThreshold, int initialChainCount,
+                                           int chainInitialCapacity, int concurrencyLevel) {
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("concurrency level must be positive");
+        }
+        lambda = resizingLoadFactorThreshold;
+        bucketLength = chainInitialCapacity;
+        itemCount = new LongAdder();
+        resizing = new AtomicBoolean(false);
+        locks = new ReentrantReadWriteLock[concurrencyLevel];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        writeGates = new ReentrantReadWriteLock[concurrencyLevel];
+        for (int i = 0; i < writeGates.length; i++) {
+            writeGates[i] = new ReentrantReadWriteLock();
+        }
+        chains = makeArrayOfChains(initialChainCount);
+    }
+
+    /**
+     * This method will return a new, empty array of the given size that can contain
+     * `IDictionary<K, V>` objects.
+     */
+    @SuppressWarnings("unchecked")
+    private IDictionary<K, V>[] makeArrayOfChains(int arraySize) {
+        return (IDictionary<K, V>[]) new IDictionary[arraySize];
+    }
+
+    /**
+     * @param key: the key one wants to get the hash of
+     * @param length: the number of chains in the table
+     * @return is the index of the chain the given key belongs in
+     */
+    private static int getHash(Object key, int length) {
+        if (key == null) {
+            return 0;
+        }
+        return (key.hashCode() & 0x7fffffff) % length;
+    }
+
+    /**
+     * @param index: the index of a chain
+     * @return is the lock that guards the chain at the given index
+     */
+    private ReentrantReadWriteLock lockFor(int index) {
+        return locks[index % locks.length];
+    }
+
+    /**
+     * @param key: the key a writer is about to change
+     * @return is the gate the writer has to pass; it does not depend on the table size, so it
+     *         stays the same across resizes
+     */
+    private ReentrantReadWriteLock.ReadLock writeGateFor(Object key) {
+        int hashCode = key == null ? 0 : key.hashCode();
+        return writeGates[(hashCode & 0x7fffffff) % writeGates.length].readLock();
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     */
+    @Override
+    public V get(K key) {
+        while (true) {
+            IDictionary<K, V>[] table = chains;
+            int hash = getHash(key, table.length);
+            ReentrantReadWriteLock.ReadLock lock = lockFor(hash).readLock();
+            lock.lock();
+            try {
+                if (table == chains) { // otherwise a resize replaced the table, so try again
+                    IDictionary<K, V> chain = table[hash];
+                    if (chain == null) {
+                        throw new NoSuchKeyException();
+                    }
+                    return chain.get(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Looks the key up once, so a concurrent remove cannot make it throw.
+     *
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the dictionary
+     * @return is the value of the given key, or the default value if the key is not in the dictionary
+     */
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        while (true) {
+            IDictionary<K, V>[] table = chains;
+            int hash = getHash(key, table.length);
+            ReentrantReadWriteLock.ReadLock lock = lockFor(hash).readLock();
+            lock.lock();
+            try {
+                if (table == chains) { // otherwise a resize replaced the table, so try again
+                    IDictionary<K, V> chain = table[hash];
+                    return chain == null ? defaultValue : chain.getOrDefault(key, defaultValue);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     *
+     * @param key: the given key the user wants to add to the dictionary
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in dictionary, return its value; otherwise return null
+     */
+    @Override
+    public V put(K key, V value) {
+        IDictionary<K, V>[] table;
+        V oldValue;
+        boolean added;
+        ReentrantReadWriteLock.ReadLock gate = writeGateFor(key);
+        gate.lock();
+        try { // no resize can replace the table while the gate is held
+            table = chains;
+            int hash = getHash(key, table.length);
+            ReentrantReadWriteLock.WriteLock lock = lockFor(hash).writeLock();
+            lock.lock();
+            try {
+                if (table[hash] == null) {
+                    table[hash] = new ArrayDictionary<>(bucketLength);
+                }
+                int chainSize = table[hash].size();
+                oldValue = table[hash].put(key, value);
+                added = table[hash].size() > chainSize;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            gate.unlock(); // before resizing, which has to close every gate
+        }
+        if (added) {
+            itemCount.increment();
+            if (itemCount.sum() >= lambda * table.length) {
+                resize(table);
+            }
+        }
+        return oldValue;
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return updateChain(key, chain -> chain.putIfAbsent(key, value));
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return updateChain(key, chain -> chain.computeIfAbsent(key, mappingFunction));
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return updateChain(key, chain -> chain.computeIfPresent(key, remappingFunction));
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return updateChain(key, chain -> chain.compute(key, remappingFunction));
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return updateChain(key, chain -> chain.merge(key, value, remappingFunction));
+    }
+
+    /**
+     * Runs the given operation on the key's chain while holding the key's write gate and the
+     * chain's write lock, so it is atomic, then updates the item count by how much the chain grew
+     * or shrank and resizes if needed.
+     *
+     * @return is what the operation returned
+     */
+    private V updateChain(K key, Function<IDictionary<K, V>, V> operation) {
+        IDictionary<K, V>[] table;
+        V result;
+        int sizeChange;
+        ReentrantReadWriteLock.ReadLock gate = writeGateFor(key);
+        gate.lock();
+        try { // no resize can replace the table while the gate is held
+            table = chains;
+            int hash = getHash(key, table.length);
+            ReentrantReadWriteLock.WriteLock lock = lockFor(hash).writeLock();
+            lock.lock();
+            try {
+                if (table[hash] == null) {
+                    table[hash] = new ArrayDictionary<>(bucketLength);
+                }
+                int chainSize = table[hash].size();
+                result = operation.apply(table[hash]);
+                sizeChange = table[hash].size() - chainSize;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            gate.unlock(); // before resizing, which has to close every gate
+        }
+        if (sizeChange > 0) {
+            itemCount.increment();
+            if (itemCount.sum() >= lambda * table.length) {
+                resize(table);
+            }
+        } else if (sizeChange < 0) {
+            itemCount.decrement();
+        }
+        return result;
+    }
+
+    /**
+     * Rehashes every pair into a table about twice as large. Only one thread resizes at a time;
+     * other threads that notice the table is too full simply carry on.
+     *
+     * @param table: the table that was found to be too full
+     */
+    private void resize(IDictionary<K, V>[] table) {
+        if (!resizing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (table != chains) { // someone else already resized it
+                return;
+            }
+            // closing the gates keeps writers out; readers only take stripe locks, which nobody
+            // holds for writing now, so they keep using the old table without waiting
+            for (ReentrantReadWriteLock gate : writeGates) {
+                gate.writeLock().lock();
+            }
+            try {
+                IDictionary<K, V>[] newChains = makeArrayOfChains(ChainedHashDictionary.nextPrime(2 * table.length));
+                for (IDictionary<K, V> chain : table) {
+                    if (chain != null) {
+                        for (KVPair<K, V> pair : chain) {
+                            int newHash = getHash(pair.getKey(), newChains.length);
+                            if (newChains[newHash] == null) {
+                                newChains[newHash] = new ArrayDictionary<>(bucketLength);
+                            }
+                            newChains[newHash].put(pair.getKey(), pair.getValue());
+                        }
+                    }
+                }
+                chains = newChains;
+            } finally {
+                for (ReentrantReadWriteLock gate : writeGates) {
+                    gate.writeLock().unlock();
+                }
+            }
+        } finally {
+            resizing.set(false);
+        }
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in dictionary, return null
+     *         Warning: values themselves can be null
+     */
+    @Override
+    public V remove(K key) {
+        ReentrantReadWriteLock.ReadLock gate = writeGateFor(key);
+        gate.lock();
+        try { // no resize can replace the table while the gate is held
+            IDictionary<K, V>[] table = chains;
+            int hash = getHash(key, table.length);
+            ReentrantReadWriteLock.WriteLock lock = lockFor(hash).writeLock();
+            lock.lock();
+            try {
+                IDictionary<K, V> chain = table[hash];
+                if (chain == null) {
+                    return null;
+                }
+                int chainSize = chain.size();
+                V removedValue = chain.remove(key);
+                if (chain.size() < chainSize) {
+                    itemCount.decrement();
+                }
+                return removedValue;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    /**
+     *
+     * @param key: checks the dictionary to see if given the key exists
+     * @return is true if key exists; false otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        while (true) {
+            IDictionary<K, V>[] table = chains;
+            int hash = getHash(key, table.length);
+            ReentrantReadWriteLock.ReadLock lock = lockFor(hash).readLock();
+            lock.lock();
+            try {
+                if (table == chains) {
+                    IDictionary<K, V> chain = table[hash];
+                    return chain != null && chain.containsKey(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return is the size of the dictionary
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(itemCount.sum(), Integer.MAX_VALUE);
+    }
+
+    /**
+     *
+     * @return creates a weakly consistent iterator for the dictionary
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new ConcurrentChainedIterator();
+    }
+
+    /**
+     *
+     * @return is a weakly consistent spliterator for the dictionary; it does not report SIZED,
+     *         since pairs may be added or removed while it is being used
+     */
+    @Override
+    public Spliterator<KVPair<K, V>> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /**
+     *
+     * @return is a string representation of the dictionary
+     *
+     */
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    /**
+     * Walks the table that was current when the iterator was made. Each chain is copied under
+     * its read lock when the iterator reaches it.
+     */
+    private class ConcurrentChainedIterator implements Iterator<KVPair<K, V>> {
+        private final IDictionary<K, V>[] table;
+        private int chainIndex;
+        private Iterator<KVPair<K, V>> chainIterator;
+
+        public ConcurrentChainedIterator() {
+            table = chains;
+            chainIndex = 0;
+            chainIterator = null;
+            advance();
+        }
+
+        /**
+         * Moves on to the next chain that has pairs in it, if the current one is used up.
+         */
+        private void advance() {
+            while ((chainIterator == null || !chainIterator.hasNext()) && chainIndex < table.length) {
+                ReentrantReadWriteLock.ReadLock lock = lockFor(chainIndex).readLock();
+                lock.lock();
+                try {
+                    IDictionary<K, V> chain = table[chainIndex];
+                    if (chain != null && chain.size() > 0) {
+                        List<KVPair<K, V>> snapshot = new ArrayList<>(chain.size());
+                        for (KVPair<K, V> pair : chain) {
+                            snapshot.add(pair);
+                        }
+                        chainIterator = snapshot.iterator();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                chainIndex++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return chainIterator != null && chainIterator.hasNext();
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> result = chainIterator.next();
+            advance();
+            return result;
+        }
+    }
+}
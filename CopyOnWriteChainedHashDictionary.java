@@ -0,0 +1,324 @@
+package datastructures.dictionaries;
+
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread-safe version of ChainedHashDictionary for read-mostly workloads.
+ *
+ * A chain is never modified once it is in the table. Writers make a changed copy of the one chain
+ * they touch and publish it in place of the old one, or build and publish a whole new table when
+ * resizing. So `get`, `containsKey` and iteration never take a lock and never see a half-done
+ * update; writers are serialized among themselves. The compute-style operations run on the copy
+ * of the chain while holding the writer lock, so each of them is atomic; the functions given to
+ * them must not modify the dictionary.
+ *
+ * The iterator walks the table that was current when it was made, and sees each chain as it was
+ * when the iterator reached it.
+ *
+ * @see IDictionary for more details on what each method should do
+ * @see ChainedHashDictionary
+ */
+public class CopyOnWriteChainedHashDictionary<K, V> implements IDictionary<K, V> {
+    private static final double DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD = 0.75;
+    private static final int DEFAULT_INITIAL_CHAIN_COUNT = 101;
+
+    volatile AtomicReferenceArray<IDictionary<K, V>> chains;
+
+    private final Object writeLock;
+    private final double lambda;
+    private volatile int itemCount;
+
+    public CopyOnWriteChainedHashDictionary() {
+        this(DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD, DEFAULT_INITIAL_CHAIN_COUNT);
+    }
+
+    public CopyOnWriteChainedHashDictionary(double resizingLoadFactorThreshold, int initialChainCount) {
+        lambda = resizingLoadFactorThreshold;
+        writeLock = new Object();
+        itemCount = 0;
+        chains = new AtomicReferenceArray<>(initialChainCount);
+    }
+
+    /**
+     * @param key: the key one wants to get the hash of
+     * @param length: the number of chains in the table
+     * @return is the index of the chain the given key belongs in
+     */
+    private static int getHash(Object key, int length) {
+        if (key == null) {
+            return 0;
+        }
+        return (key.hashCode() & 0x7fffffff) % length;
+    }
+
+    /**
+     * @param chain: the chain to copy (may be null)
+     * @param extraCapacity: how many more pairs the copy should have room for
+     * @return is a new chain holding the same pairs as the given one
+     */
+    private static <K, V> ArrayDictionary<K, V> copyOf(IDictionary<K, V> chain, int extraCapacity) {
+        int chainSize = chain == null ? 0 : chain.size();
+        ArrayDictionary<K, V> copy = new ArrayDictionary<>(Math.max(1, chainSize + extraCapacity));
+        if (chain != null) {
+            for (KVPair<K, V> pair : chain) {
+                copy.put(pair.getKey(), pair.getValue());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     */
+    @Override
+    public V get(K key) {
+        AtomicReferenceArray<IDictionary<K, V>> table = chains;
+        IDictionary<K, V> chain = table.get(getHash(key, table.length()));
+        if (chain == null) {
+            throw new NoSuchKeyException();
+        }
+        return chain.get(key);
+    }
+
+    /**
+     * Looks the chain up once, so a concurrent remove cannot make it throw.
+     *
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the dictionary
+     * @return is the value of the given key, or the default value if the key is not in the dictionary
+     */
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        AtomicReferenceArray<IDictionary<K, V>> table = chains;
+        IDictionary<K, V> chain = table.get(getHash(key, table.length()));
+        return chain == null ? defaultValue : chain.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     *
+     * @param key: the given key the user wants to add to the dictionary
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in dictionary, return its value; otherwise return null
+     */
+    @Override
+    public V put(K key, V value) {
+        synchronized (writeLock) {
+            AtomicReferenceArray<IDictionary<K, V>> table = chains;
+            int hash = getHash(key, table.length());
+            IDictionary<K, V> chain = table.get(hash);
+            boolean isNewKey = chain == null || !chain.containsKey(key);
+
+            ArrayDictionary<K, V> newChain = copyOf(chain, isNewKey ? 1 : 0);
+            V oldValue = newChain.put(key, value);
+            table.set(hash, newChain);
+
+            if (isNewKey) {
+                itemCount++;
+                if (((double) itemCount / table.length()) >= lambda) {
+                    resize(table);
+                }
+            }
+            return oldValue;
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return updateChain(key, chain -> chain.putIfAbsent(key, value));
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return updateChain(key, chain -> chain.computeIfAbsent(key, mappingFunction));
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return updateChain(key, chain -> chain.computeIfPresent(key, remappingFunction));
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return updateChain(key, chain -> chain.compute(key, remappingFunction));
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return updateChain(key, chain -> chain.merge(key, value, remappingFunction));
+    }
+
+    /**
+     * Runs the given operation on a copy of the key's chain while holding the writer lock, then
+     * publishes the copy in place of the chain and updates the item count by how much it grew or
+     * shrank. If the operation throws, nothing is published.
+     *
+     * @return is what the operation returned
+     */
+    private V updateChain(K key, Function<IDictionary<K, V>, V> operation) {
+        synchronized (writeLock) {
+            AtomicReferenceArray<IDictionary<K, V>> table = chains;
+            int hash = getHash(key, table.length());
+            IDictionary<K, V> chain = table.get(hash);
+            int chainSize = chain == null ? 0 : chain.size();
+
+            ArrayDictionary<K, V> newChain = copyOf(chain, 1);
+            V result = operation.apply(newChain);
+            table.set(hash, newChain.isEmpty() ? null : newChain);
+
+            itemCount += newChain.size() - chainSize;
+            if (newChain.size() > chainSize && ((double) itemCount / table.length()) >= lambda) {
+                resize(table);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Builds a table about twice as large from the given one and publishes it. The new chains are
+     * filled in before the table is published, so readers only ever see finished chains.
+     */
+    private void resize(AtomicReferenceArray<IDictionary<K, V>> table) {
+        int newTableSize = ChainedHashDictionary.nextPrime(2 * table.length());
+        AtomicReferenceArray<IDictionary<K, V>> newChains = new AtomicReferenceArray<>(newTableSize);
+        for (int i = 0; i < table.length(); i++) {
+            IDictionary<K, V> chain = table.get(i);
+            if (chain != null) {
+                for (KVPair<K, V> pair : chain) {
+                    int newHash = getHash(pair.getKey(), newTableSize);
+                    IDictionary<K, V> newChain = newChains.get(newHash);
+                    if (newChain == null) {
+                        newChain = new ArrayDictionary<>(1);
+                        newChains.set(newHash, newChain);
+                    }
+                    newChain.put(pair.getKey(), pair.getValue()); // not visible to readers yet
+                }
+            }
+        }
+        chains = newChains;
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in dictionary, return null
+     *         Warning: values themselves can be null
+     */
+    @Override
+    public V remove(K key) {
+        synchronized (writeLock) {
+            AtomicReferenceArray<IDictionary<K, V>> table = chains;
+            int hash = getHash(key, table.length());
+            IDictionary<K, V> chain = table.get(hash);
+            if (chain == null || !chain.containsKey(key)) {
+                return null;
+            }
+            ArrayDictionary<K, V> newChain = copyOf(chain, 0);
+            V removedValue = newChain.remove(key);
+            table.set(hash, newChain.isEmpty() ? null : newChain);
+            itemCount--;
+            return removedValue;
+        }
+    }
+
+    /**
+     *
+     * @param key: checks the dictionary to see if given the key exists
+     * @return is true if key exists; false otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        AtomicReferenceArray<IDictionary<K, V>> table = chains;
+        IDictionary<K, V> chain = table.get(getHash(key, table.length()));
+        return chain != null && chain.containsKey(key);
+    }
+
+    /**
+     *
+     * @return is the size of the dictionary
+     */
+    @Override
+    public int size() {
+        return itemCount;
+    }
+
+    /**
+     *
+     * @return creates an iterator for the dictionary that never blocks
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new CopyOnWriteIterator<>(chains);
+    }
+
+    /**
+     *
+     * @return is a spliterator for the dictionary that never blocks; it does not report SIZED,
+     *         since pairs may be added or removed while it is being used
+     */
+    @Override
+    public Spliterator<KVPair<K, V>> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /**
+     *
+     * @return is a string representation of the dictionary
+     *
+     */
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    private static class CopyOnWriteIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private final AtomicReferenceArray<IDictionary<K, V>> table;
+        private int chainIndex;
+        private Iterator<KVPair<K, V>> chainIterator;
+
+        public CopyOnWriteIterator(AtomicReferenceArray<IDictionary<K, V>> table) {
+            this.table = table;
+            chainIndex = 0;
+            chainIterator = null;
+            advance();
+        }
+
+        /**
+         * Moves on to the next chain that has pairs in it, if the current one is used up. Since
+         * published chains never change, iterating one directly is safe.
+         */
+        private void advance() {
+            while ((chainIterator == null || !chainIterator.hasNext()) && chainIndex < table.length()) {
+                IDictionary<K, V> chain = table.get(chainIndex);
+                if (chain != null) {
+                    chainIterator = chain.iterator();
+                }
+                chainIndex++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return chainIterator != null && chainIterator.hasNext();
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> result = chainIterator.next();
+            advance();
+            return result;
+        }
+    }
+}
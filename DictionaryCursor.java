@@ -0,0 +1,41 @@
+package datastructures.dictionaries;
+
+/**
+ * Walks over the pairs of a dictionary one at a time without creating an object per pair, unlike
+ * an Iterator that has to hand out a new KVPair for every pair. A cursor can be reset and walked
+ * again, so a single one can serve any number of full scans.
+ *
+ * Typical use:
+ *
+ *     DictionaryCursor<K, V> cursor = dictionary.cursor();
+ *     while (cursor.advance()) {
+ *         use(cursor.key(), cursor.value());
+ *     }
+ *
+ * The dictionary must not be modified while a cursor is walking over it.
+ */
+public interface DictionaryCursor<K, V> {
+    /**
+     * Moves the cursor to the next pair.
+     *
+     * @return is true if the cursor is on a pair now; false if every pair has been visited
+     */
+    boolean advance();
+
+    /**
+     * @return is the key of the pair the cursor is on
+     * @throws IllegalStateException: if the cursor is not on a pair
+     */
+    K key();
+
+    /**
+     * @return is the value of the pair the cursor is on
+     * @throws IllegalStateException: if the cursor is not on a pair
+     */
+    V value();
+
+    /**
+     * Moves the cursor back to before the first pair, so the next `advance` starts a new walk.
+     */
+    void reset();
+}
@@ -0,0 +1,145 @@
+package datastructures.dictionaries;
+
+import java.util.Arrays;
+
+/**
+ * A read-only snapshot of how a hash dictionary's table looks and how it has been used since
+ * statistics were turned on. Useful for picking a load factor or noticing keys that all hash to
+ * the same few chains.
+ *
+ * @see ChainedHashDictionary#enableStatistics()
+ */
+public final class DictionaryStatistics {
+    private final int itemCount;
+    private final int chainCount;
+    private final int[] chainLengthHistogram;
+    private final long lookups;
+    private final long hits;
+    private final long totalProbes;
+    private final int maxProbeLength;
+    private final int resizeCount;
+    private final long resizeNanos;
+
+    DictionaryStatistics(int itemCount, int chainCount, int[] chainLengthHistogram, long lookups, long hits,
+                         long totalProbes, int maxProbeLength, int resizeCount, long resizeNanos) {
+        this.itemCount = itemCount;
+        this.chainCount = chainCount;
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.lookups = lookups;
+        this.hits = hits;
+        this.totalProbes = totalProbes;
+        this.maxProbeLength = maxProbeLength;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+    }
+
+    /**
+     * Returns the number of pairs in the dictionary.
+     */
+    public int itemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Returns the number of chains in the table, including empty ones.
+     */
+    public int chainCount() {
+        return chainCount;
+    }
+
+    /**
+     * Returns the current load factor, i.e. pairs per chain.
+     */
+    public double loadFactor() {
+        return chainCount == 0 ? 0 : (double) itemCount / chainCount;
+    }
+
+    /**
+     * Returns how many chains hold exactly `i` pairs, at index `i`. The array is as long as the
+     * longest chain plus one.
+     */
+    public int[] chainLengthHistogram() {
+        return chainLengthHistogram.clone();
+    }
+
+    /**
+     * Returns the number of pairs in the longest chain.
+     */
+    public int maxChainLength() {
+        return chainLengthHistogram.length - 1;
+    }
+
+    /**
+     * Returns the average number of pairs in the chains that are not empty.
+     */
+    public double averageChainLength() {
+        int nonEmptyChains = chainCount - (chainLengthHistogram.length > 0 ? chainLengthHistogram[0] : 0);
+        return nonEmptyChains == 0 ? 0 : (double) itemCount / nonEmptyChains;
+    }
+
+    /**
+     * Returns the number of `get` calls recorded.
+     */
+    public long lookups() {
+        return lookups;
+    }
+
+    /**
+     * Returns the number of recorded `get` calls that found their key.
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of recorded `get` calls that did not find their key.
+     */
+    public long misses() {
+        return lookups - hits;
+    }
+
+    /**
+     * Returns the fraction of recorded `get` calls that found their key.
+     */
+    public double hitRatio() {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the average number of keys compared per recorded `get` call.
+     */
+    public double averageProbeLength() {
+        return lookups == 0 ? 0 : (double) totalProbes / lookups;
+    }
+
+    /**
+     * Returns the largest number of keys compared by a single recorded `get` call.
+     */
+    public int maxProbeLength() {
+        return maxProbeLength;
+    }
+
+    /**
+     * Returns the number of times the table was resized.
+     */
+    public int resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the total time spent rehashing pairs into a resized table, in nanoseconds.
+     */
+    public long resizeNanos() {
+        return resizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("items=%d, chains=%d, loadFactor=%.3f, maxChainLength=%d, averageChainLength=%.3f, "
+                        + "chainLengthHistogram=%s, lookups=%d, hitRatio=%.3f, averageProbeLength=%.3f, "
+                        + "maxProbeLength=%d, resizes=%d, resizeMillis=%.3f",
+                itemCount, chainCount, loadFactor(), maxChainLength(), averageChainLength(),
+                Arrays.toString(chainLengthHistogram), lookups, hitRatio(), averageProbeLength(),
+                maxProbeLength, resizeCount, resizeNanos / 1e6);
+    }
+}
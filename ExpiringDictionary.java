@@ -0,0 +1,452 @@
+package datastructures.dictionaries;
+
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A dictionary whose pairs expire a while after they were put in (or, depending on the policy,
+ * last used). Expired pairs are treated as absent by every lookup the moment they expire, and are
+ * taken out of the dictionary by the next operation that moves the clock forward.
+ *
+ * Each pair can have its own time to live; `put(key, value)` uses the default one given to the
+ * constructor. Deadlines are kept in a TimerWheel, so cleaning up only costs time for the pairs
+ * that actually expired, not for the ones that are still alive.
+ *
+ * Time is read from a Ticker, which can be replaced, e.g. to control time in tests.
+ *
+ * Not thread-safe.
+ *
+ * @see IDictionary for more details on what each method should do
+ */
+public class ExpiringDictionary<K, V> implements IDictionary<K, V> {
+    // far enough in the future to never be reached, and small enough to never overflow when
+    // added to the current time
+    private static final long MAXIMUM_TTL_NANOS = Long.MAX_VALUE >>> 2;
+
+    private final long defaultTtlNanos;
+    private final ExpirationPolicy policy;
+    private final Ticker ticker;
+    private final ChainedHashDictionary<K, Node<K, V>> nodes;
+    private final TimerWheel<K, V> wheel;
+    // handed to the wheel once, instead of making a new lambda on every operation
+    private final Consumer<TimerWheel.Node<K, V>> onExpired;
+
+    /**
+     * When the time to live of a pair starts counting.
+     */
+    public enum ExpirationPolicy {
+        /** A pair expires a fixed time after it was last put in. */
+        AFTER_WRITE,
+        /** A pair expires a fixed time after it was last put in or looked up with get/getOrDefault. */
+        AFTER_ACCESS
+    }
+
+    /**
+     * A source of time, in nanoseconds. Only the differences between readings matter, as with
+     * System.nanoTime(), and readings must never go backwards.
+     */
+    @FunctionalInterface
+    public interface Ticker {
+        Ticker SYSTEM = System::nanoTime;
+
+        long read();
+    }
+
+    /**
+     * @param defaultTtl: how long pairs put in without a time to live of their own stay alive
+     * @param unit: the unit of defaultTtl
+     * @param policy: when the time to live of a pair starts counting
+     * @throws IllegalArgumentException: if the default time to live is not positive
+     */
+    public ExpiringDictionary(long defaultTtl, TimeUnit unit, ExpirationPolicy policy) {
+        this(defaultTtl, unit, policy, Ticker.SYSTEM);
+    }
+
+    /**
+     * @param defaultTtl: how long pairs put in without a time to live of their own stay alive
+     * @param unit: the unit of defaultTtl
+     * @param policy: when the time to live of a pair starts counting
+     * @param ticker: where the dictionary reads the time from
+     * @throws IllegalArgumentException: if the default time to live is not positive
+     */
+    public ExpiringDictionary(long defaultTtl, TimeUnit unit, ExpirationPolicy policy, Ticker ticker) {
+        if (policy == null || ticker == null) {
+            throw new IllegalArgumentException("policy and ticker must not be null");
+        }
+        this.defaultTtlNanos = toTtlNanos(defaultTtl, unit);
+        this.policy = policy;
+        this.ticker = ticker;
+        nodes = new ChainedHashDictionary<>();
+        wheel = new TimerWheel<>(ticker.read());
+        onExpired = this::expire;
+    }
+
+    private static long toTtlNanos(long ttl, TimeUnit unit) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("time to live must be positive");
+        }
+        return Math.min(unit.toNanos(ttl), MAXIMUM_TTL_NANOS);
+    }
+
+    /**
+     * @return is when the dictionary's pairs start counting their time to live
+     */
+    public ExpirationPolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Reads the time and takes out every pair that has expired by then.
+     *
+     * @return is the time that was read
+     */
+    private long advance() {
+        long now = ticker.read();
+        wheel.advance(now, onExpired);
+        return now;
+    }
+
+    /**
+     * Takes out every pair that has expired. Every other operation does this too, so this is only
+     * needed to free the memory of expired pairs when the dictionary is not being used.
+     */
+    public void cleanUp() {
+        advance();
+    }
+
+    private void expire(TimerWheel.Node<K, V> node) {
+        nodes.remove(node.key);
+    }
+
+    private static boolean isExpired(Node<?, ?> node, long now) {
+        return node.deadline - now <= 0;
+    }
+
+    /**
+     * @return is the live node of the given key, or null if the key is absent or has expired;
+     *         expired nodes are taken out on the way
+     */
+    private Node<K, V> findLive(K key, long now) {
+        Node<K, V> node = nodes.getOrNull(key);
+        if (node != null && isExpired(node, now)) {
+            // the wheel has not come around to it yet, since its slots are not exact
+            wheel.deschedule(node);
+            nodes.remove(key);
+            return null;
+        }
+        return node;
+    }
+
+    /**
+     * Restarts the time to live of a node that was just used, if the policy asks for it.
+     */
+    private void recordAccess(Node<K, V> node, long now) {
+        if (policy == ExpirationPolicy.AFTER_ACCESS) {
+            reschedule(node, now);
+        }
+    }
+
+    private void reschedule(Node<K, V> node, long now) {
+        wheel.deschedule(node);
+        node.deadline = now + node.ttlNanos;
+        wheel.schedule(node);
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     * @throws NoSuchKeyException: if the key is not in the dictionary or has expired
+     */
+    @Override
+    public V get(K key) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        recordAccess(node, now);
+        return node.value;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the dictionary or has expired
+     * @return is the value of the given key, or the default value
+     */
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        if (node == null) {
+            return defaultValue;
+        }
+        recordAccess(node, now);
+        return node.value;
+    }
+
+    /**
+     * Puts the pair in with the default time to live.
+     *
+     * @param key: the given key the user wants to add to the dictionary
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists and has not expired, return its value; otherwise return null
+     */
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, defaultTtlNanos);
+    }
+
+    /**
+     * Puts the pair in with its own time to live, which also applies to later accesses when the
+     * policy is AFTER_ACCESS.
+     *
+     * @param key: the given key the user wants to add to the dictionary
+     * @param value: the value corresponding to the user's given key
+     * @param ttl: how long the pair stays alive
+     * @param unit: the unit of ttl
+     * @return if the key already exists and has not expired, return its value; otherwise return null
+     * @throws IllegalArgumentException: if the time to live is not positive
+     */
+    public V put(K key, V value, long ttl, TimeUnit unit) {
+        return put(key, value, toTtlNanos(ttl, unit));
+    }
+
+    private V put(K key, V value, long ttlNanos) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        if (node == null) {
+            insert(key, value, ttlNanos, now);
+            return null;
+        }
+        V oldValue = node.value;
+        node.ttlNanos = ttlNanos;
+        update(node, value, now);
+        return oldValue;
+    }
+
+    /**
+     * Adds a pair for a key that has no live node.
+     */
+    private void insert(K key, V value, long ttlNanos, long now) {
+        Node<K, V> node = new Node<>(key, value);
+        node.ttlNanos = ttlNanos;
+        nodes.put(key, node);
+        reschedule(node, now);
+    }
+
+    /**
+     * Gives a live node a new value, which restarts its time to live.
+     */
+    private void update(Node<K, V> node, V value, long now) {
+        node.value = value;
+        reschedule(node, now);
+    }
+
+    private void removeNode(Node<K, V> node) {
+        wheel.deschedule(node);
+        nodes.remove(node.key);
+    }
+
+    /*
+    The compute-style operations read the time once and look the key up once, so a pair cannot
+    expire halfway through one of them. Reading a value counts as using the pair, like `get`; a new
+    value restarts the pair's own time to live, and new pairs get the default one.
+     */
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        if (node != null) {
+            recordAccess(node, now);
+            return node.value;
+        }
+        insert(key, value, defaultTtlNanos, now);
+        return null;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        if (node != null) {
+            recordAccess(node, now);
+            return node.value;
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            insert(key, value, defaultTtlNanos, now);
+        }
+        return value;
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        if (node == null) {
+            return null;
+        }
+        V value = remappingFunction.apply(key, node.value);
+        if (value == null) {
+            removeNode(node);
+        } else {
+            update(node, value, now);
+        }
+        return value;
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        V value = remappingFunction.apply(key, node == null ? null : node.value);
+        if (value == null) {
+            if (node != null) {
+                removeNode(node);
+            }
+        } else if (node == null) {
+            insert(key, value, defaultTtlNanos, now);
+        } else {
+            update(node, value, now);
+        }
+        return value;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        long now = advance();
+        Node<K, V> node = findLive(key, now);
+        if (node == null) {
+            insert(key, value, defaultTtlNanos, now);
+            return value;
+        }
+        V merged = remappingFunction.apply(node.value, value);
+        if (merged == null) {
+            removeNode(node);
+        } else {
+            update(node, merged, now);
+        }
+        return merged;
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in the dictionary or has
+     *         expired, return null
+     *         Warning: values themselves can be null
+     */
+    @Override
+    public V remove(K key) {
+        long now = advance();
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return null;
+        }
+        wheel.deschedule(node);
+        return isExpired(node, now) ? null : node.value;
+    }
+
+    /**
+     *
+     * @param key: checks the dictionary to see if given the key exists; does not count as using it
+     * @return is true if key exists and has not expired; false otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return findLive(key, advance()) != null;
+    }
+
+    /**
+     *
+     * @return is the size of the dictionary
+     *         Warning: may count pairs that expired less than about a second ago
+     */
+    @Override
+    public int size() {
+        advance();
+        return nodes.size();
+    }
+
+    /**
+     *
+     * @return creates an iterator that goes through the pairs that have not expired when it is
+     *         created, in no particular order; iterating does not count as using the pairs
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new LiveIterator<>(nodes.iterator(), advance());
+    }
+
+    /**
+     *
+     * @return is a spliterator over the pairs that have not expired when it is created; it does
+     *         not report SIZED, since `size()` may still count pairs the iterator skips
+     */
+    @Override
+    public Spliterator<KVPair<K, V>> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    /**
+     * A pair with its own time to live.
+     */
+    private static class Node<K, V> extends TimerWheel.Node<K, V> {
+        long ttlNanos;
+
+        Node(K key, V value) {
+            super(key, value);
+        }
+    }
+
+    private static class LiveIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private final Iterator<KVPair<K, Node<K, V>>> nodes;
+        private final long now;
+        private Node<K, V> next;
+
+        public LiveIterator(Iterator<KVPair<K, Node<K, V>>> nodes, long now) {
+            this.nodes = nodes;
+            this.now = now;
+            findNext();
+        }
+
+        private void findNext() {
+            next = null;
+            while (next == null && nodes.hasNext()) {
+                Node<K, V> node = nodes.next().getValue();
+                if (!isExpired(node, now)) {
+                    next = node;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> result = new KVPair<>(next.key, next.value);
+            findNext();
+            return result;
+        }
+    }
+}
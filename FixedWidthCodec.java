@@ -0,0 +1,80 @@
+package datastructures.dictionaries;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns values of some type into a fixed number of bytes and back, so they can be stored outside
+ * of the Java heap.
+ *
+ * Two values that are `equals` must be written as the same bytes, since stored keys are compared
+ * byte by byte.
+ */
+public interface FixedWidthCodec<T> {
+    /**
+     * Returns the number of bytes every value takes up.
+     */
+    int width();
+
+    /**
+     * Writes the given value into the buffer, starting at the given absolute offset. Must write
+     * exactly `width()` bytes and must not change the position of the buffer.
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Reads the value that starts at the given absolute offset of the buffer. Must not change the
+     * position of the buffer.
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    FixedWidthCodec<Integer> INTEGER = new FixedWidthCodec<Integer>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    FixedWidthCodec<Long> LONG = new FixedWidthCodec<Long>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<Double>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+}
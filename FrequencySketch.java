@@ -0,0 +1,119 @@
+package datastructures.dictionaries;
+
+
+import java.util.Objects;
+
+/**
+ * Estimates how often each key has been seen recently, in a fixed and small amount of memory: a
+ * count-min sketch with four rows of 4-bit counters. A key's estimate is the smallest of its four
+ * counters, so collisions can only make it too high, never too low.
+ *
+ * Counters stop at 15. Once the sketch has counted ten times as many keys as the cache holds, every
+ * counter is halved ("aging"), so keys that were popular a long time ago lose their weight.
+ */
+final class FrequencySketch {
+    private static final int MAXIMUM_COUNT = 15;
+    private static final int SAMPLE_SIZE_FACTOR = 10;
+    // keeps the low three bits of every 4-bit counter after shifting the whole long right by one
+    private static final long HALVING_MASK = 0x7777777777777777L;
+    // one seed per row, so that keys colliding in one row are unlikely to collide in the others
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    // each long holds 16 counters: four for each of the four rows
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param capacity: the number of keys the cache using the sketch holds
+     */
+    FrequencySketch(int capacity) {
+        int length = 1;
+        while (length < capacity && length < (1 << 30)) {
+            length <<= 1;
+        }
+        table = new long[length];
+        tableMask = length - 1;
+        sampleSize = (int) Math.min((long) SAMPLE_SIZE_FACTOR * capacity, Integer.MAX_VALUE);
+        additions = 0;
+    }
+
+    /**
+     * @return is the estimated number of times the key has been counted recently, from 0 to 15
+     */
+    int frequency(Object key) {
+        int hash = spread(Objects.hashCode(key));
+        int start = (hash & 3) << 2;
+        int frequency = MAXIMUM_COUNT;
+        for (int row = 0; row < 4; row++) {
+            int offset = (start + row) << 2;
+            int count = (int) ((table[indexOf(hash, row)] >>> offset) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Counts one more occurrence of the key, and ages the sketch if it has counted enough keys.
+     */
+    void increment(Object key) {
+        int hash = spread(Objects.hashCode(key));
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int row = 0; row < 4; row++) {
+            added |= incrementAt(indexOf(hash, row), start + row);
+        }
+        if (added && ++additions == sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * @param counter: which of the 16 counters of the long to increment
+     * @return is true if the counter was not at its maximum yet
+     */
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halves every counter.
+     */
+    private void age() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & HALVING_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    /**
+     * @return is the index in `table` of the long that holds the key's counter for the given row
+     */
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    /**
+     * @return is the given hash code with its bits mixed, so that similar hash codes end up in
+     *         unrelated counters
+     */
+    private static int spread(int h) {
+        h ^= h >>> 17;
+        h *= 0xed5ad4bb;
+        h ^= h >>> 11;
+        h *= 0xac4c1b51;
+        h ^= h >>> 15;
+        return h;
+    }
+}
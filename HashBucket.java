@@ -0,0 +1,210 @@
+package datastructures.dictionaries;
+
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A chain of ChainedHashDictionary. Besides the IDictionary operations, a bucket takes the hash
+ * code of a key alongside the key and keeps it next to every pair, so that:
+ *  - the owning dictionary calls `hashCode()` only once per operation,
+ *  - a scan compares the stored hash codes first and calls `equals` only when they match,
+ *  - a resize can place every pair by its stored hash code without calling `hashCode()` again.
+ *
+ * The hash code passed in with a key must always be `hashOf(key)`.
+ */
+abstract class HashBucket<K, V> implements IDictionary<K, V> {
+    /**
+     * @param key: the key one wants the hash code of; may be null
+     * @return is the hash code buckets store for the given key
+     */
+    static int hashOf(Object key) {
+        return Objects.hashCode(key);
+    }
+
+    @Override
+    public V get(K key) {
+        return get(key, hashOf(key));
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        return getOrDefault(key, hashOf(key), defaultValue);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, hashOf(key));
+    }
+
+    @Override
+    public V remove(K key) {
+        return remove(key, hashOf(key));
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return containsKey(key, hashOf(key));
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putIfAbsent(key, value, hashOf(key));
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return computeIfAbsent(key, hashOf(key), mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return computeIfPresent(key, hashOf(key), remappingFunction);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return compute(key, hashOf(key), remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return merge(key, hashOf(key), value, remappingFunction);
+    }
+
+    /**
+     * @throws NoSuchKeyException: if the key does not exist in the bucket
+     */
+    abstract V get(K key, int hash);
+
+    abstract V put(K key, V value, int hash);
+
+    abstract V remove(K key, int hash);
+
+    abstract boolean containsKey(K key, int hash);
+
+    /**
+     * @return is the pair holding the given key, or null if the key is not in the bucket
+     */
+    abstract Entry<K, V> findEntry(K key, int hash);
+
+    /**
+     * Adds a pair without looking for its key first; the key must not be in the bucket already.
+     */
+    abstract void insertAbsent(K key, V value, int hash);
+
+    V getOrDefault(K key, int hash, V defaultValue) {
+        Entry<K, V> entry = findEntry(key, hash);
+        return entry == null ? defaultValue : entry.getValue();
+    }
+
+    /*
+    The compute-style operations below find the key once and then work on its entry. Only
+    removing a pair looks for the key a second time.
+     */
+
+    V putIfAbsent(K key, V value, int hash) {
+        Entry<K, V> entry = findEntry(key, hash);
+        if (entry != null) {
+            return entry.getValue();
+        }
+        insertAbsent(key, value, hash);
+        return null;
+    }
+
+    V computeIfAbsent(K key, int hash, Function<? super K, ? extends V> mappingFunction) {
+        Entry<K, V> entry = findEntry(key, hash);
+        if (entry != null) {
+            return entry.getValue();
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            insertAbsent(key, value, hash);
+        }
+        return value;
+    }
+
+    V computeIfPresent(K key, int hash, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Entry<K, V> entry = findEntry(key, hash);
+        if (entry == null) {
+            return null;
+        }
+        V value = remappingFunction.apply(key, entry.getValue());
+        if (value == null) {
+            remove(key, hash);
+        } else {
+            entry.setValue(value);
+        }
+        return value;
+    }
+
+    V compute(K key, int hash, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Entry<K, V> entry = findEntry(key, hash);
+        V value = remappingFunction.apply(key, entry == null ? null : entry.getValue());
+        if (entry == null) {
+            if (value != null) {
+                insertAbsent(key, value, hash);
+            }
+        } else if (value == null) {
+            remove(key, hash);
+        } else {
+            entry.setValue(value);
+        }
+        return value;
+    }
+
+    V merge(K key, int hash, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Entry<K, V> entry = findEntry(key, hash);
+        if (entry == null) {
+            insertAbsent(key, value, hash);
+            return value;
+        }
+        V merged = remappingFunction.apply(entry.getValue(), value);
+        if (merged == null) {
+            remove(key, hash);
+        } else {
+            entry.setValue(merged);
+        }
+        return merged;
+    }
+
+    /**
+     * Hands every pair of the bucket, along with its stored hash code, to the given visitor.
+     */
+    abstract void forEachEntry(EntryVisitor<K, V> visitor);
+
+    /**
+     * @return is the first non-null result of the given function on the pairs of the bucket, or
+     *         null if there is none. No more pairs are visited once a result is found.
+     */
+    abstract <U> U search(BiFunction<? super K, ? super V, ? extends U> function);
+
+    /**
+     * Replaces the value of every pair with the result of the given function on that pair.
+     */
+    abstract void replaceAll(BiFunction<? super K, ? super V, ? extends V> function);
+
+    /**
+     * Gives back any room the bucket has for more pairs than it holds.
+     */
+    abstract void trimToSize();
+
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    interface EntryVisitor<K, V> {
+        void visit(int hash, K key, V value);
+    }
+
+    /**
+     * A pair stored in a bucket, as found by `findEntry`.
+     */
+    interface Entry<K, V> {
+        V getValue();
+
+        void setValue(V value);
+    }
+}
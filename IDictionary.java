@@ -1,6 +1,13 @@
 package datastructures.dictionaries;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a data structure that contains a bunch of key-value mappings. Each key must be unique.
@@ -30,6 +37,17 @@ public interface IDictionary<K, V> extends Iterable<KVPair<K, V>> {
         }
     }
 
+    /**
+     * Returns the value corresponding to the given key, or `null` if the key is not in the map.
+     *
+     * Since `null` is a valid value, a `null` result does not necessarily mean the key is missing.
+     * To tell the two apart without looking the key up twice, call `getOrDefault` with a default
+     * value that is never stored in the dictionary, and compare the result to it.
+     */
+    default V getOrNull(K key) {
+        return this.getOrDefault(key, null);
+    }
+
     /**
      * Adds the key-value pair to the dictionary. If the key already exists in the dictionary,
      * replaces its value with the given one and returns the old value. Otherwise, returns `null`.
@@ -54,6 +72,104 @@ public interface IDictionary<K, V> extends Iterable<KVPair<K, V>> {
      */
     boolean containsKey(K key);
 
+    /*
+    The methods below update a pair based on whether its key is in the dictionary. A key counts
+    as being in the dictionary whenever `containsKey` says so, even if its value is `null`.
+    Functions that compute a new value may return `null` to mean "no pair": the key is then
+    removed, or not added. Those functions must not modify the dictionary themselves.
+
+    Note: The interface provides default implementations made of `containsKey`, `get`, `put` and
+          `remove`; implementations may override them with versions that find the key only once.
+     */
+
+    /**
+     * Adds the key-value pair to the dictionary if the key is not in it yet.
+     *
+     * Returns the value the key had, or `null` if the key was not in the dictionary.
+     */
+    default V putIfAbsent(K key, V value) {
+        if (this.containsKey(key)) {
+            return this.get(key);
+        }
+        this.put(key, value);
+        return null;
+    }
+
+    /**
+     * If the key is not in the dictionary yet, computes its value with the given function and
+     * adds the pair, unless the function returns `null`.
+     *
+     * Returns the value the key has now, or `null` if the function returned `null`.
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (this.containsKey(key)) {
+            return this.get(key);
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            this.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * If the key is in the dictionary, replaces its value with the result of the given function on
+     * the key and its current value, or removes the pair if the function returns `null`.
+     *
+     * Returns the new value, or `null` if the key was not in the dictionary or has been removed.
+     */
+    default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (!this.containsKey(key)) {
+            return null;
+        }
+        V value = remappingFunction.apply(key, this.get(key));
+        if (value == null) {
+            this.remove(key);
+        } else {
+            this.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Computes a new value for the key from the key and its current value (`null` if the key is
+     * not in the dictionary). The pair is then added or replaced, or removed if the function
+     * returns `null`.
+     *
+     * Returns the new value, or `null` if there is no pair for the key anymore.
+     */
+    default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        boolean present = this.containsKey(key);
+        V value = remappingFunction.apply(key, present ? this.get(key) : null);
+        if (value != null) {
+            this.put(key, value);
+        } else if (present) {
+            this.remove(key);
+        }
+        return value;
+    }
+
+    /**
+     * Adds the key-value pair if the key is not in the dictionary yet. Otherwise replaces the
+     * key's value with the result of the given function on its current value and the given one,
+     * or removes the pair if the function returns `null`.
+     *
+     * Returns the value the key has now, or `null` if the pair has been removed.
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (!this.containsKey(key)) {
+            this.put(key, value);
+            return value;
+        }
+        V merged = remappingFunction.apply(this.get(key), value);
+        if (merged == null) {
+            this.remove(key);
+        } else {
+            this.put(key, merged);
+        }
+        return merged;
+    }
+
     /**
      * Returns the number of key-value pairs stored in this dictionary.
      */
@@ -72,6 +188,45 @@ public interface IDictionary<K, V> extends Iterable<KVPair<K, V>> {
      */
     Iterator<KVPair<K, V>> iterator();
 
+    /**
+     * Returns a spliterator over all key-value pairs contained within this dict. Every key is
+     * unique, so it is DISTINCT, and it knows the number of pairs up front, so it is SIZED.
+     *
+     * Note: The interface provides a default implementation that wraps the iterator and can only
+     *       split off batches one after another; implementations may override it with one that
+     *       splits evenly.
+     */
+    @Override
+    default Spliterator<KVPair<K, V>> spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a sequential stream of all key-value pairs contained within this dict.
+     */
+    default Stream<KVPair<K, V>> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel stream of all key-value pairs contained within this dict.
+     */
+    default Stream<KVPair<K, V>> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Calls the given action with the key and value of every pair in this dictionary.
+     *
+     * Note: The interface provides a default implementation that goes through the iterator;
+     *       implementations may override it with one that does not create a KVPair per pair.
+     */
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        for (KVPair<K, V> pair : this) {
+            action.accept(pair.getKey(), pair.getValue());
+        }
+    }
+
     static <K, V> String toString(IDictionary<K, V> dictionary) {
         StringBuilder out = new StringBuilder();
         out.append("{");
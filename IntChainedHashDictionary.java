@@ -0,0 +1,294 @@
+package datastructures.dictionaries;
+
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash dictionary with `int` keys that never boxes its keys.
+ *
+ * Collisions are still resolved by chaining, but the chains are threaded through flat arrays:
+ * the entries live in the parallel arrays `keys`, `values` and `next`, and `heads` holds the index
+ * of the first entry of every chain. There are no per-entry or per-chain objects.
+ *
+ * The `int` overloads should be used on hot paths; the `Integer` methods from IDictionary are
+ * there so this class can be used wherever an `IDictionary<Integer, V>` is expected.
+ * Null keys are not supported.
+ *
+ * @see IDictionary for more details on what each method should do
+ * @see ChainedHashDictionary
+ */
+public class IntChainedHashDictionary<V> implements IDictionary<Integer, V> {
+    private static final double DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD = 0.75;
+    private static final int DEFAULT_INITIAL_CHAIN_COUNT = 101;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final int NO_ENTRY = -1;
+
+    int[] heads;
+    int[] keys;
+    Object[] values;
+    int[] next;
+
+    private double lambda;
+    private int itemCount;
+
+    public IntChainedHashDictionary() {
+        this(DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD, DEFAULT_INITIAL_CHAIN_COUNT, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity: the number of entries to make room for before the entry arrays grow
+     */
+    public IntChainedHashDictionary(double resizingLoadFactorThreshold, int initialChainCount, int initialCapacity) {
+        lambda = resizingLoadFactorThreshold;
+        itemCount = 0;
+        heads = new int[initialChainCount];
+        Arrays.fill(heads, NO_ENTRY);
+        keys = new int[Math.max(1, initialCapacity)];
+        values = new Object[keys.length];
+        next = new int[keys.length];
+    }
+
+    /**
+     * @param key: the key one wants to get the hash of
+     * @return is the index of the chain the given key belongs in
+     */
+    private int getHash(int key) {
+        return (key & 0x7fffffff) % heads.length;
+    }
+
+    /**
+     * @param key: the key to look for
+     * @return is the index of the entry holding the given key, or NO_ENTRY if there is none
+     */
+    private int findEntry(int key) {
+        int entry = heads[getHash(key)];
+        while (entry != NO_ENTRY && keys[entry] != key) {
+            entry = next[entry];
+        }
+        return entry;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     * @throws NoSuchKeyException: if the key does not exist in the dictionary
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int entry = findEntry(key);
+        if (entry == NO_ENTRY) {
+            throw new NoSuchKeyException();
+        }
+        return (V) values[entry];
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the dictionary
+     * @return is the value of the given key, or the default value if the key is not in the dictionary
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        int entry = findEntry(key);
+        return entry == NO_ENTRY ? defaultValue : (V) values[entry];
+    }
+
+    /**
+     *
+     * @param key: the given key the user wants to add to the dictionary
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in dictionary, return its value; otherwise return null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int hash = getHash(key);
+        int entry = heads[hash];
+        while (entry != NO_ENTRY) {
+            if (keys[entry] == key) {
+                V oldValue = (V) values[entry];
+                values[entry] = value;
+                return oldValue;
+            }
+            entry = next[entry];
+        }
+
+        if (itemCount == keys.length) { // the entry arrays are full
+            int newLength = 2 * keys.length;
+            keys = Arrays.copyOf(keys, newLength);
+            values = Arrays.copyOf(values, newLength);
+            next = Arrays.copyOf(next, newLength);
+        }
+        keys[itemCount] = key;
+        values[itemCount] = value;
+        next[itemCount] = heads[hash];
+        heads[hash] = itemCount;
+        itemCount++;
+
+        if (((double) itemCount / heads.length) >= lambda) {
+            rehash(ChainedHashDictionary.nextPrime(2 * heads.length));
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds the chains for the given number of chains. The entries themselves stay where they
+     * are, only the links are redone.
+     */
+    private void rehash(int newChainCount) {
+        heads = new int[newChainCount];
+        Arrays.fill(heads, NO_ENTRY);
+        for (int entry = 0; entry < itemCount; entry++) {
+            int hash = getHash(keys[entry]);
+            next[entry] = heads[hash];
+            heads[hash] = entry;
+        }
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in dictionary, return null
+     *         Warning: values themselves can be null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int hash = getHash(key);
+        int previous = NO_ENTRY;
+        int entry = heads[hash];
+        while (entry != NO_ENTRY && keys[entry] != key) {
+            previous = entry;
+            entry = next[entry];
+        }
+        if (entry == NO_ENTRY) {
+            return null;
+        }
+        V removedValue = (V) values[entry];
+        unlink(hash, previous, entry);
+
+        // keep the entries packed by moving the last entry into the hole
+        int last = itemCount - 1;
+        if (entry != last) {
+            int lastHash = getHash(keys[last]);
+            if (heads[lastHash] == last) {
+                heads[lastHash] = entry;
+            } else {
+                int link = heads[lastHash];
+                while (next[link] != last) {
+                    link = next[link];
+                }
+                next[link] = entry;
+            }
+            keys[entry] = keys[last];
+            values[entry] = values[last];
+            next[entry] = next[last];
+        }
+        values[last] = null;
+        itemCount--;
+        return removedValue;
+    }
+
+    /**
+     * Takes the given entry out of its chain.
+     *
+     * @param previous: the entry before it in the chain, or NO_ENTRY if it is the first one
+     */
+    private void unlink(int hash, int previous, int entry) {
+        if (previous == NO_ENTRY) {
+            heads[hash] = next[entry];
+        } else {
+            next[previous] = next[entry];
+        }
+    }
+
+    /**
+     *
+     * @param key: checks the dictionary to see if given the key exists
+     * @return is true if key exists; false otherwise
+     */
+    public boolean containsKey(int key) {
+        return findEntry(key) != NO_ENTRY;
+    }
+
+    @Override
+    public V get(Integer key) {
+        return get(key.intValue());
+    }
+
+    @Override
+    public V getOrDefault(Integer key, V defaultValue) {
+        return getOrDefault(key.intValue(), defaultValue);
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Integer key) {
+        return remove(key.intValue());
+    }
+
+    @Override
+    public boolean containsKey(Integer key) {
+        return containsKey(key.intValue());
+    }
+
+    /**
+     *
+     * @return is the size of the dictionary
+     */
+    @Override
+    public int size() {
+        return itemCount;
+    }
+
+    /**
+     *
+     * @return creates an iterator for the dictionary
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<Integer, V>> iterator() {
+        return new IntChainedIterator();
+    }
+
+    /**
+     *
+     * @return is a string representation of the dictionary
+     *
+     */
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    /**
+     * Since the entries are packed, iterating is a walk over the first `itemCount` entries.
+     */
+    private class IntChainedIterator implements Iterator<KVPair<Integer, V>> {
+        private int index;
+
+        public IntChainedIterator() {
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < itemCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public KVPair<Integer, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<Integer, V> result = new KVPair<>(keys[index], (V) values[index]);
+            index++;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package datastructures.dictionaries;
+
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A dictionary that holds at most a fixed number of pairs. Once it is full, putting in a new key
+ * evicts the pair that was used the longest time ago (least recently used). Getting a key or
+ * putting a new value for it counts as using it; `containsKey` does not.
+ *
+ * Every pair is a node of an AccessOrderList kept in order of use, and a ChainedHashDictionary
+ * maps each key to its node, so lookups, updates and evictions all take O(1) time.
+ *
+ * Not thread-safe.
+ *
+ * @see IDictionary for more details on what each method should do
+ */
+public class LruCacheDictionary<K, V> implements IDictionary<K, V> {
+    private final int capacity;
+    private final ChainedHashDictionary<K, AccessOrderList.Node<K, V>> nodes;
+    private final AccessOrderList<K, V> order;
+
+    /**
+     * @param capacity: the largest number of pairs the cache holds
+     * @throws IllegalArgumentException: if the capacity is not positive
+     */
+    public LruCacheDictionary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        nodes = new ChainedHashDictionary<>();
+        nodes.ensureCapacity(capacity); // a full cache should never have to resize its table
+        order = new AccessOrderList<>();
+    }
+
+    /**
+     * @return is the largest number of pairs the cache holds
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find; the key becomes the most recently used
+     * @throws NoSuchKeyException: if the key is not in the cache
+     */
+    @Override
+    public V get(K key) {
+        AccessOrderList.Node<K, V> node = nodes.getOrNull(key);
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        order.moveToBack(node);
+        return node.value;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the cache
+     * @return is the value of the given key, which becomes the most recently used, or the default
+     *         value if the key is not in the cache
+     */
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        AccessOrderList.Node<K, V> node = nodes.getOrNull(key);
+        if (node == null) {
+            return defaultValue;
+        }
+        order.moveToBack(node);
+        return node.value;
+    }
+
+    /**
+     * Puts the pair in as the most recently used one. If the key is new and the cache is full,
+     * the least recently used pair is evicted to make room.
+     *
+     * @param key: the given key the user wants to add to the cache
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in cache, return its value; otherwise return null
+     */
+    @Override
+    public V put(K key, V value) {
+        AccessOrderList.Node<K, V> node = nodes.getOrNull(key);
+        if (node != null) {
+            V oldValue = node.value;
+            node.value = value;
+            order.moveToBack(node);
+            return oldValue;
+        }
+        if (order.size() == capacity) {
+            evict();
+        }
+        node = new AccessOrderList.Node<>(key, value);
+        nodes.put(key, node);
+        order.addToBack(node);
+        return null;
+    }
+
+    /**
+     * Takes the least recently used pair out of the cache.
+     */
+    private void evict() {
+        AccessOrderList.Node<K, V> eldest = order.front;
+        order.unlink(eldest);
+        nodes.remove(eldest.key);
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in cache, return null
+     *         Warning: values themselves can be null
+     */
+    @Override
+    public V remove(K key) {
+        AccessOrderList.Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return null;
+        }
+        order.unlink(node);
+        return node.value;
+    }
+
+    /**
+     *
+     * @param key: checks the cache to see if given the key exists; does not count as using it
+     * @return is true if key exists; false otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return nodes.containsKey(key);
+    }
+
+    /**
+     *
+     * @return is the size of the cache
+     */
+    @Override
+    public int size() {
+        return order.size();
+    }
+
+    /**
+     *
+     * @return creates an iterator that goes from the least to the most recently used pair;
+     *         iterating does not count as using the pairs
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new AccessOrderIterator<>(order.front);
+    }
+
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    private static class AccessOrderIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private AccessOrderList.Node<K, V> next;
+
+        public AccessOrderIterator(AccessOrderList.Node<K, V> front) {
+            next = front;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> result = new KVPair<>(next.key, next.value);
+            next = next.next;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package datastructures.dictionaries;
+
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistent version of OffHeapDictionary whose chains and slots live in memory-mapped files.
+ *
+ * Every update goes straight into the mapping, so reopening the files makes the dictionary usable
+ * right away without putting anything again. The dictionary is kept in two files next to each
+ * other: `<path>.idx` holds a small header followed by the chain heads, and `<path>.dat` holds
+ * the slots.
+ *
+ * The operating system writes the mapping back to disk on its own schedule; call `force()` to
+ * make sure everything is on disk. If the process dies between an update and the next `force()`
+ * the files may not be usable anymore.
+ *
+ * A reopened dictionary finds its keys in the chains they were put into, which were picked by the
+ * keys' hash codes. So the keys must have the same hash codes in every run of the program, as
+ * strings and boxed numbers do. Keys that use Object.hashCode, such as enum constants, cannot be
+ * found again after reopening.
+ *
+ * @see OffHeapDictionary for the layout of chains and slots
+ */
+public class MappedDictionary<K, V> extends OffHeapDictionary<K, V> implements Closeable {
+    private static final double DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD = 0.75;
+    private static final int DEFAULT_INITIAL_CHAIN_COUNT = 1024;
+
+    private static final int MAGIC = 0x43484431; // "CHD1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int KEY_WIDTH_OFFSET = 8;
+    private static final int VALUE_WIDTH_OFFSET = 12;
+    private static final int LAMBDA_OFFSET = 16;
+    private static final int CHAIN_COUNT_OFFSET = 24;
+    private static final int ITEM_COUNT_OFFSET = 28;
+    private static final int SLOT_COUNT_OFFSET = 32;
+    private static final int FREE_SLOT_OFFSET = 36;
+
+    private final FileChannel indexChannel;
+    private final FileChannel dataChannel;
+    private final MappedByteBuffer header;
+
+    private MappedDictionary(double resizingLoadFactorThreshold, FixedWidthCodec<K> keyCodec,
+                             FixedWidthCodec<V> valueCodec, FileChannel indexChannel, FileChannel dataChannel,
+                             MappedByteBuffer header) {
+        super(resizingLoadFactorThreshold, keyCodec, valueCodec,
+                new ChunkedBuffer(CHUNK_BYTES, mapper(indexChannel, HEADER_BYTES)),
+                new ChunkedBuffer(slotChunkBytes(slotSizeFor(keyCodec, valueCodec)), mapper(dataChannel, 0)));
+        this.indexChannel = indexChannel;
+        this.dataChannel = dataChannel;
+        this.header = header;
+    }
+
+    /**
+     * Opens the dictionary stored at the given path, or creates an empty one if there is none.
+     */
+    public static <K, V> MappedDictionary<K, V> open(Path path, FixedWidthCodec<K> keyCodec,
+                                                     FixedWidthCodec<V> valueCodec) throws IOException {
+        return open(path, DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD, DEFAULT_INITIAL_CHAIN_COUNT, keyCodec, valueCodec);
+    }
+
+    /**
+     * Opens the dictionary stored at the given path, or creates an empty one if there is none.
+     *
+     * @param resizingLoadFactorThreshold: only used when a new dictionary is created; an existing
+     *                                     one keeps the threshold it was created with
+     * @param initialChainCount: only used when a new dictionary is created
+     * @throws IOException: if the files cannot be opened, or they hold a dictionary that was
+     *                      written with codecs of different widths
+     */
+    public static <K, V> MappedDictionary<K, V> open(Path path, double resizingLoadFactorThreshold,
+                                                     int initialChainCount, FixedWidthCodec<K> keyCodec,
+                                                     FixedWidthCodec<V> valueCodec) throws IOException {
+        Path indexPath = path.resolveSibling(path.getFileName() + ".idx");
+        Path dataPath = path.resolveSibling(path.getFileName() + ".dat");
+        boolean exists = Files.exists(indexPath) && Files.size(indexPath) >= HEADER_BYTES && Files.exists(dataPath);
+
+        FileChannel indexChannel = FileChannel.open(indexPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel dataChannel = null;
+        try {
+            dataChannel = FileChannel.open(dataPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+
+            if (!exists) {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(VERSION_OFFSET, VERSION);
+                header.putInt(KEY_WIDTH_OFFSET, keyCodec.width());
+                header.putInt(VALUE_WIDTH_OFFSET, valueCodec.width());
+                header.putDouble(LAMBDA_OFFSET, resizingLoadFactorThreshold);
+                MappedDictionary<K, V> dictionary = new MappedDictionary<>(resizingLoadFactorThreshold,
+                        keyCodec, valueCodec, indexChannel, dataChannel, header);
+                dictionary.resetChains(chainCountFor(initialChainCount));
+                return dictionary;
+            }
+
+            if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException(indexPath + " is not a dictionary file this version can read");
+            }
+            if (header.getInt(KEY_WIDTH_OFFSET) != keyCodec.width()
+                    || header.getInt(VALUE_WIDTH_OFFSET) != valueCodec.width()) {
+                throw new IOException(indexPath + " was written with codecs of different widths");
+            }
+            MappedDictionary<K, V> dictionary = new MappedDictionary<>(header.getDouble(LAMBDA_OFFSET),
+                    keyCodec, valueCodec, indexChannel, dataChannel, header);
+            dictionary.chainCount = header.getInt(CHAIN_COUNT_OFFSET);
+            dictionary.itemCount = header.getInt(ITEM_COUNT_OFFSET);
+            dictionary.slotCount = header.getInt(SLOT_COUNT_OFFSET);
+            dictionary.freeSlot = header.getInt(FREE_SLOT_OFFSET);
+            // map what is already there; nothing is read until it is used
+            dictionary.heads.ensureCapacity((long) dictionary.chainCount * Integer.BYTES);
+            dictionary.slots.ensureCapacity((long) dictionary.slotCount * dictionary.slotSize);
+            return dictionary;
+        } catch (IOException | RuntimeException e) {
+            indexChannel.close();
+            if (dataChannel != null) {
+                dataChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return is an allocator that maps consecutive regions of the given file, starting at the
+     *         given position; mapping past the end of the file makes the file larger
+     */
+    private static ChunkedBuffer.ChunkAllocator mapper(FileChannel channel, long start) {
+        return (chunkIndex, chunkBytes) -> {
+            try {
+                return channel.map(FileChannel.MapMode.READ_WRITE, start + (long) chunkIndex * chunkBytes, chunkBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @Override
+    void stateChanged() {
+        header.putInt(CHAIN_COUNT_OFFSET, chainCount);
+        header.putInt(ITEM_COUNT_OFFSET, itemCount);
+        header.putInt(SLOT_COUNT_OFFSET, slotCount);
+        header.putInt(FREE_SLOT_OFFSET, freeSlot);
+    }
+
+    /**
+     * Writes every change made so far to disk.
+     */
+    public void force() {
+        heads.forEachChunk(MappedDictionary::forceChunk);
+        slots.forEachChunk(MappedDictionary::forceChunk);
+        header.force();
+    }
+
+    private static void forceChunk(ByteBuffer chunk) {
+        ((MappedByteBuffer) chunk).force();
+    }
+
+    /**
+     * Writes every change to disk and closes the files. The dictionary must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            try {
+                indexChannel.close();
+            } finally {
+                dataChannel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package datastructures.dictionaries;
+
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Hash dictionary that keeps all of its keys and values outside of the Java heap, so the garbage
+ * collector never has to scan them. Keys and values are written as fixed-width bytes by the given
+ * codecs.
+ *
+ * Collisions are resolved by chaining. Every entry lives in a fixed-size slot
+ *
+ *     [next slot (int)][hash (int)][key bytes][value bytes]
+ *
+ * and the `heads` buffer holds the first slot of every chain. Removed slots are kept in a free
+ * list and reused. Both buffers are made of chunks, so the dictionary can grow past 2GB.
+ *
+ * Null keys are not supported; null values only if the value codec supports them.
+ *
+ * @see IDictionary for more details on what each method should do
+ * @see ChainedHashDictionary
+ */
+public class OffHeapDictionary<K, V> implements IDictionary<K, V> {
+    private static final double DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD = 0.75;
+    private static final int DEFAULT_INITIAL_CHAIN_COUNT = 1024;
+    private static final int MAXIMUM_CHAIN_COUNT = 1 << 30;
+    static final int CHUNK_BYTES = 1 << 20;
+
+    static final int NO_SLOT = -1;
+    // stored in the `next` field of a slot that is on the free list
+    static final int FREE_SLOT = -2;
+
+    static final int NEXT_OFFSET = 0;
+    // for a free slot, this field links to the next free slot instead
+    static final int HASH_OFFSET = 4;
+    static final int KEY_OFFSET = 8;
+
+    final FixedWidthCodec<K> keyCodec;
+    final FixedWidthCodec<V> valueCodec;
+    final int slotSize;
+    final double lambda;
+
+    final ChunkedBuffer heads;
+    final ChunkedBuffer slots;
+
+    int chainCount;
+    int itemCount;
+    int slotCount;
+    int freeSlot;
+
+    // holds the encoded key of the current lookup, so it can be compared to stored keys
+    private final ByteBuffer probeKey;
+
+    public OffHeapDictionary(FixedWidthCodec<K> keyCodec, FixedWidthCodec<V> valueCodec) {
+        this(DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD, DEFAULT_INITIAL_CHAIN_COUNT, keyCodec, valueCodec);
+    }
+
+    public OffHeapDictionary(double resizingLoadFactorThreshold, int initialChainCount,
+                             FixedWidthCodec<K> keyCodec, FixedWidthCodec<V> valueCodec) {
+        this(resizingLoadFactorThreshold, keyCodec, valueCodec, ChunkedBuffer.direct(CHUNK_BYTES),
+                ChunkedBuffer.direct(slotChunkBytes(slotSizeFor(keyCodec, valueCodec))));
+        resetChains(chainCountFor(initialChainCount));
+    }
+
+    /**
+     * Makes a dictionary on top of the given buffers. The caller is responsible for either
+     * restoring the state fields or calling `resetChains`.
+     */
+    OffHeapDictionary(double resizingLoadFactorThreshold, FixedWidthCodec<K> keyCodec,
+                      FixedWidthCodec<V> valueCodec, ChunkedBuffer heads, ChunkedBuffer slots) {
+        this.lambda = resizingLoadFactorThreshold;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.slotSize = slotSizeFor(keyCodec, valueCodec);
+        this.heads = heads;
+        this.slots = slots;
+        this.probeKey = ByteBuffer.allocate(keyCodec.width());
+        chainCount = 0;
+        itemCount = 0;
+        slotCount = 0;
+        freeSlot = NO_SLOT;
+    }
+
+    static int slotSizeFor(FixedWidthCodec<?> keyCodec, FixedWidthCodec<?> valueCodec) {
+        return KEY_OFFSET + keyCodec.width() + valueCodec.width();
+    }
+
+    /**
+     * @return is the chunk size for slots of the given size; a whole number of slots always fits
+     *         in a chunk, so no slot is ever split between two chunks
+     */
+    static int slotChunkBytes(int slotSize) {
+        return Math.max(1, CHUNK_BYTES / slotSize) * slotSize;
+    }
+
+    /**
+     * @return is the smallest power of two that is at least the given number of chains
+     */
+    static int chainCountFor(int requested) {
+        int count = 1;
+        while (count < requested && count < MAXIMUM_CHAIN_COUNT) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    /**
+     * @param key: the key one wants to get the hash of
+     * @return is the mixed hash code of the given key
+     */
+    private static int hashOf(Object key) {
+        int h = Objects.requireNonNull(key, "null keys are not supported").hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private long position(int slot) {
+        return (long) slot * slotSize;
+    }
+
+    private int chainOf(int hash) {
+        return hash & (chainCount - 1);
+    }
+
+    private int head(int chain) {
+        return heads.getInt((long) chain * Integer.BYTES);
+    }
+
+    private void setHead(int chain, int slot) {
+        heads.putInt((long) chain * Integer.BYTES, slot);
+    }
+
+    private int nextSlot(int slot) {
+        return slots.getInt(position(slot) + NEXT_OFFSET);
+    }
+
+    private void setNextSlot(int slot, int next) {
+        slots.putInt(position(slot) + NEXT_OFFSET, next);
+    }
+
+    private int storedHash(int slot) {
+        return slots.getInt(position(slot) + HASH_OFFSET);
+    }
+
+    private V readValue(int slot) {
+        long position = position(slot);
+        return valueCodec.read(slots.chunk(position), slots.offset(position) + KEY_OFFSET + keyCodec.width());
+    }
+
+    private K readKey(int slot) {
+        long position = position(slot);
+        return keyCodec.read(slots.chunk(position), slots.offset(position) + KEY_OFFSET);
+    }
+
+    private void writeValue(int slot, V value) {
+        long position = position(slot);
+        valueCodec.write(slots.chunk(position), slots.offset(position) + KEY_OFFSET + keyCodec.width(), value);
+    }
+
+    /**
+     * @return is true if the key stored in the given slot has the same bytes as `probeKey`
+     */
+    private boolean keyMatches(int slot) {
+        long position = position(slot);
+        ByteBuffer chunk = slots.chunk(position);
+        int offset = slots.offset(position) + KEY_OFFSET;
+        int width = probeKey.capacity();
+        int i = 0;
+        for (; i + Long.BYTES <= width; i += Long.BYTES) {
+            if (chunk.getLong(offset + i) != probeKey.getLong(i)) {
+                return false;
+            }
+        }
+        for (; i < width; i++) {
+            if (chunk.get(offset + i) != probeKey.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param key: the key to look for
+     * @param hash: the hash of the given key
+     * @return is the slot holding the given key, or NO_SLOT if it is not in the dictionary
+     */
+    private int findSlot(K key, int hash) {
+        keyCodec.write(probeKey, 0, key);
+        int slot = head(chainOf(hash));
+        while (slot != NO_SLOT && !(storedHash(slot) == hash && keyMatches(slot))) {
+            slot = nextSlot(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Sets up the given number of empty chains. Every pair is linked into them again; the slots
+     * themselves stay where they are.
+     */
+    void resetChains(int newChainCount) {
+        chainCount = newChainCount;
+        heads.ensureCapacity((long) chainCount * Integer.BYTES);
+        for (int chain = 0; chain < chainCount; chain++) {
+            setHead(chain, NO_SLOT);
+        }
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (nextSlot(slot) != FREE_SLOT) {
+                int chain = chainOf(storedHash(slot));
+                setNextSlot(slot, head(chain));
+                setHead(chain, slot);
+            }
+        }
+        stateChanged();
+    }
+
+    /**
+     * Called whenever `chainCount`, `itemCount`, `slotCount` or `freeSlot` changes. Does nothing
+     * here; subclasses that keep the state somewhere else can override it.
+     */
+    void stateChanged() {
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     * @throws NoSuchKeyException: if the key does not exist in the dictionary
+     */
+    @Override
+    public V get(K key) {
+        int slot = findSlot(key, hashOf(key));
+        if (slot == NO_SLOT) {
+            throw new NoSuchKeyException();
+        }
+        return readValue(slot);
+    }
+
+    /**
+     *
+     * @param key: the given key the user wants to add to the dictionary
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in dictionary, return its value; otherwise return null
+     */
+    @Override
+    public V put(K key, V value) {
+        int hash = hashOf(key);
+        int slot = findSlot(key, hash);
+        if (slot != NO_SLOT) {
+            V oldValue = readValue(slot);
+            writeValue(slot, value);
+            return oldValue;
+        }
+
+        if (freeSlot != NO_SLOT) {
+            slot = freeSlot;
+            freeSlot = storedHash(slot);
+        } else {
+            slot = slotCount;
+            slots.ensureCapacity(position(slot) + slotSize);
+            slotCount++;
+        }
+        long position = position(slot);
+        ByteBuffer chunk = slots.chunk(position);
+        int offset = slots.offset(position);
+        int chain = chainOf(hash);
+        chunk.putInt(offset + NEXT_OFFSET, head(chain));
+        chunk.putInt(offset + HASH_OFFSET, hash);
+        keyCodec.write(chunk, offset + KEY_OFFSET, key);
+        valueCodec.write(chunk, offset + KEY_OFFSET + keyCodec.width(), value);
+        setHead(chain, slot);
+        itemCount++;
+
+        if (((double) itemCount / chainCount) >= lambda && chainCount < MAXIMUM_CHAIN_COUNT) {
+            resetChains(2 * chainCount);
+        } else {
+            stateChanged();
+        }
+        return null;
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in dictionary, return null
+     *         Warning: values themselves can be null
+     */
+    @Override
+    public V remove(K key) {
+        int hash = hashOf(key);
+        keyCodec.write(probeKey, 0, key);
+        int chain = chainOf(hash);
+        int previous = NO_SLOT;
+        int slot = head(chain);
+        while (slot != NO_SLOT && !(storedHash(slot) == hash && keyMatches(slot))) {
+            previous = slot;
+            slot = nextSlot(slot);
+        }
+        if (slot == NO_SLOT) {
+            return null;
+        }
+        V removedValue = readValue(slot);
+        if (previous == NO_SLOT) {
+            setHead(chain, nextSlot(slot));
+        } else {
+            setNextSlot(previous, nextSlot(slot));
+        }
+
+        // put the slot on the free list
+        setNextSlot(slot, FREE_SLOT);
+        slots.putInt(position(slot) + HASH_OFFSET, freeSlot);
+        freeSlot = slot;
+        itemCount--;
+        stateChanged();
+        return removedValue;
+    }
+
+    /**
+     *
+     * @param key: checks the dictionary to see if given the key exists
+     * @return is true if key exists; false otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return findSlot(key, hashOf(key)) != NO_SLOT;
+    }
+
+    /**
+     *
+     * @return is the size of the dictionary
+     */
+    @Override
+    public int size() {
+        return itemCount;
+    }
+
+    /**
+     *
+     * @return creates an iterator for the dictionary
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new OffHeapIterator();
+    }
+
+    /**
+     *
+     * @return is a string representation of the dictionary
+     *
+     */
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    /**
+     * Walks the slots in order, skipping the ones on the free list.
+     */
+    private class OffHeapIterator implements Iterator<KVPair<K, V>> {
+        private int slot;
+
+        public OffHeapIterator() {
+            slot = 0;
+            skipFreeSlots();
+        }
+
+        private void skipFreeSlots() {
+            while (slot < slotCount && nextSlot(slot) == FREE_SLOT) {
+                slot++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < slotCount;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> result = new KVPair<>(readKey(slot), readValue(slot));
+            slot++;
+            skipFreeSlots();
+            return result;
+        }
+    }
+}
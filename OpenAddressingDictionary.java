@@ -0,0 +1,382 @@
+package datastructures.dictionaries;
+
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Hash dictionary that keeps its keys and values in flat parallel arrays and resolves collisions
+ * by probing neighbouring slots instead of chaining buckets. Since there are no per-bucket
+ * dictionaries or per-entry pair objects, a lookup touches the arrays directly.
+ *
+ * Can be used as a drop-in replacement for ChainedHashDictionary.
+ *
+ * @see IDictionary for more details on what each method should do
+ * @see ChainedHashDictionary
+ */
+public class OpenAddressingDictionary<K, V> implements IDictionary<K, V> {
+    /**
+     * How the table looks for the next slot when the home slot of a key is taken.
+     */
+    public enum ProbingStrategy {
+        /** Try the following slots one by one. */
+        LINEAR,
+        /**
+         * Like LINEAR, but an inserted key takes the slot of any key that sits closer to its own
+         * home slot. This keeps probe lengths short and lets misses stop early.
+         */
+        ROBIN_HOOD
+    }
+
+    private static final double DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 128;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    // Stored in place of a null key, so that a null slot always means "empty"
+    private static final Object NULL_KEY = new Object();
+
+    Object[] keys;
+    Object[] values;
+    int[] hashes;
+
+    private final ProbingStrategy probing;
+    private final double lambda;
+    private int mask;
+    private int itemCount;
+    private int resizeThreshold;
+
+    public OpenAddressingDictionary() {
+        this(ProbingStrategy.ROBIN_HOOD);
+    }
+
+    public OpenAddressingDictionary(ProbingStrategy probing) {
+        this(DEFAULT_RESIZING_LOAD_FACTOR_THRESHOLD, DEFAULT_INITIAL_CAPACITY, probing);
+    }
+
+    public OpenAddressingDictionary(double resizingLoadFactorThreshold, int initialCapacity,
+                                    ProbingStrategy probing) {
+        if (resizingLoadFactorThreshold <= 0 || resizingLoadFactorThreshold >= 1) {
+            throw new IllegalArgumentException("load factor must be between 0 and 1 (exclusive)");
+        }
+        this.probing = Objects.requireNonNull(probing);
+        this.lambda = resizingLoadFactorThreshold;
+        itemCount = 0;
+        allocate(tableSizeFor(initialCapacity));
+    }
+
+    /**
+     * @param capacity: the number of slots the user asked for
+     * @return is the smallest power of two that is at least the given capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        int size = 2;
+        while (size < capacity && size < MAXIMUM_CAPACITY) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Replaces the arrays with new, empty arrays of the given (power of two) length.
+     */
+    private void allocate(int tableSize) {
+        keys = new Object[tableSize];
+        values = new Object[tableSize];
+        hashes = new int[tableSize];
+        mask = tableSize - 1;
+        resizeThreshold = (int) Math.min(tableSize * lambda, tableSize - 1);
+    }
+
+    /**
+     * @param key: the key one wants to get the hash of
+     * @return is the mixed hash code of the given key; the low bits of it pick the home slot
+     */
+    private static int hashOf(Object key) {
+        int h = Objects.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    /**
+     * @param slot: an occupied slot of the table
+     * @return is how many slots away from its home slot the key in the given slot sits
+     */
+    private int probeDistance(int slot) {
+        return (slot - (hashes[slot] & mask)) & mask;
+    }
+
+    /**
+     * @param key: the (masked) key to look for
+     * @param hash: the hash of the given key
+     * @return is the slot holding the given key, or -1 if the key is not in the table
+     */
+    private int findSlot(Object key, int hash) {
+        int slot = hash & mask;
+        int distance = 0;
+        while (true) {
+            Object current = keys[slot];
+            if (current == null) {
+                return -1;
+            }
+            if (hashes[slot] == hash && Objects.equals(key, current)) {
+                return slot;
+            }
+            if (probing == ProbingStrategy.ROBIN_HOOD && probeDistance(slot) < distance) {
+                // the key would have displaced this entry, so it cannot be further along
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     * @throws NoSuchKeyException: if the key does not exist in the dictionary
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Object masked = maskNull(key);
+        int slot = findSlot(masked, hashOf(key));
+        if (slot < 0) {
+            throw new NoSuchKeyException();
+        }
+        return (V) values[slot];
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the dictionary
+     * @return is the value of the given key, or the default value if the key is not in the dictionary
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(K key, V defaultValue) {
+        int slot = findSlot(maskNull(key), hashOf(key));
+        return slot < 0 ? defaultValue : (V) values[slot];
+    }
+
+    /**
+     *
+     * @param key: the given key the user wants to add to the dictionary
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in dictionary, return its value; otherwise return null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Object masked = maskNull(key);
+        int hash = hashOf(key);
+        int slot = hash & mask;
+        int distance = 0;
+        while (true) { // single pass: either find the key or the slot it belongs in
+            Object current = keys[slot];
+            if (current == null) {
+                break;
+            }
+            if (hashes[slot] == hash && Objects.equals(masked, current)) {
+                V oldValue = (V) values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            if (probing == ProbingStrategy.ROBIN_HOOD && probeDistance(slot) < distance) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+
+        if (itemCount + 1 > resizeThreshold) {
+            resize(keys.length * 2);
+            insertAbsent(masked, value, hash);
+        } else {
+            insertAt(slot, distance, masked, value, hash);
+        }
+        itemCount++;
+        return null;
+    }
+
+    /**
+     * Inserts a key that is known not to be in the table.
+     */
+    private void insertAbsent(Object key, Object value, int hash) {
+        int slot = hash & mask;
+        int distance = 0;
+        while (keys[slot] != null
+                && (probing == ProbingStrategy.LINEAR || probeDistance(slot) >= distance)) {
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+        insertAt(slot, distance, key, value, hash);
+    }
+
+    /**
+     * Places the entry at the given slot. The slot is either empty or, for robin hood probing,
+     * held by an entry that is closer to its home than the new entry is; that entry is then
+     * carried further along the table until an empty slot is found.
+     *
+     * @param slot: where the entry goes
+     * @param distance: how far the given slot is from the entry's home slot
+     */
+    private void insertAt(int slot, int distance, Object key, Object value, int hash) {
+        while (keys[slot] != null) {
+            int existingDistance = probeDistance(slot);
+            if (existingDistance < distance) { // take the slot and carry the old entry forward
+                Object tempKey = keys[slot];
+                Object tempValue = values[slot];
+                int tempHash = hashes[slot];
+                keys[slot] = key;
+                values[slot] = value;
+                hashes[slot] = hash;
+                key = tempKey;
+                value = tempValue;
+                hash = tempHash;
+                distance = existingDistance;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hash;
+    }
+
+    /**
+     * Moves every entry into new arrays of the given length. The stored hashes are reused, so
+     * no key's hashCode() is called again.
+     */
+    private void resize(int newTableSize) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(newTableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insertAbsent(oldKeys[i], oldValues[i], oldHashes[i]);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in dictionary, return null
+     *         Warning: values themselves can be null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int slot = findSlot(maskNull(key), hashOf(key));
+        if (slot < 0) {
+            return null;
+        }
+        V deletedValue = (V) values[slot];
+
+        // move later entries of the cluster back into the hole so no tombstones are needed
+        int next = (slot + 1) & mask;
+        while (keys[next] != null) {
+            int distance = probeDistance(next);
+            if (probing == ProbingStrategy.ROBIN_HOOD && distance == 0) {
+                break; // robin hood keeps clusters ordered, so nothing past here can move
+            }
+            if (distance >= ((next - slot) & mask)) { // its home is at or before the hole
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                hashes[slot] = hashes[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = null;
+        values[slot] = null;
+        hashes[slot] = 0;
+        itemCount--;
+        return deletedValue;
+    }
+
+    /**
+     *
+     * @param key: checks the dictionary to see if given the key exists
+     * @return is true if key exists; false otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return findSlot(maskNull(key), hashOf(key)) >= 0;
+    }
+
+    /**
+     *
+     * @return is the size of the dictionary
+     */
+    @Override
+    public int size() {
+        return itemCount;
+    }
+
+    /**
+     *
+     * @return creates an iterator for the dictionary
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new OpenAddressingIterator<>(keys, values);
+    }
+
+    /**
+     *
+     * @return is a string representation of the dictionary
+     *
+     */
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    private static class OpenAddressingIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private final Object[] keys;
+        private final Object[] values;
+        private int index;
+
+        public OpenAddressingIterator(Object[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+            index = 0;
+            skipEmptySlots();
+        }
+
+        private void skipEmptySlots() {
+            while (index < keys.length && keys[index] == null) {
+                index++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> result = new KVPair<>(unmaskNull(keys[index]), (V) values[index]);
+            index++;
+            skipEmptySlots();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package datastructures.dictionaries;
+
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads what a SnapshotWriter wrote from a channel, filling its buffer in large blocks.
+ */
+final class SnapshotReader {
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+
+    SnapshotReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(SnapshotWriter.BLOCK_BYTES);
+        buffer.limit(0);
+    }
+
+    /**
+     * @return is the buffer, with at least the given number of bytes remaining
+     * @throws EOFException: if the channel ends before that many bytes could be read
+     */
+    private ByteBuffer require(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        if (buffer.capacity() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(bytes, 2 * buffer.capacity()));
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("the snapshot ends early");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    int readInt() throws IOException {
+        return require(Integer.BYTES).getInt();
+    }
+
+    double readDouble() throws IOException {
+        return require(Double.BYTES).getDouble();
+    }
+
+    <T> T readValue(SnapshotSerializer<T> serializer) throws IOException {
+        int length = readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("the snapshot is corrupt: a value has a negative length");
+        }
+        require(length);
+        int limit = buffer.limit();
+        int end = buffer.position() + length;
+        buffer.limit(end);
+        T value = serializer.read(buffer);
+        buffer.limit(limit);
+        buffer.position(end);
+        return value;
+    }
+}
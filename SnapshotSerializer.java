@@ -0,0 +1,68 @@
+package datastructures.dictionaries;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turns keys or values into bytes and back for dictionary snapshots. Unlike FixedWidthCodec, a
+ * value may take up any number of bytes; the snapshot records how many.
+ *
+ * @see ChainedHashDictionary#writeSnapshot
+ */
+public interface SnapshotSerializer<T> {
+    /**
+     * Writes the given value, which is never null, at the position of the buffer using relative
+     * puts. If the buffer runs out of room the resulting BufferOverflowException is caught and
+     * `write` is called again for the same value with a buffer that has more room, so it must not
+     * have any other side effects.
+     */
+    void write(ByteBuffer buffer, T value);
+
+    /**
+     * Reads a value back. The remaining bytes of the buffer are exactly the bytes `write` wrote
+     * for it.
+     */
+    T read(ByteBuffer buffer);
+
+    /**
+     * @return is a serializer that writes values the way the given codec does
+     */
+    static <T> SnapshotSerializer<T> of(FixedWidthCodec<T> codec) {
+        return new SnapshotSerializer<T>() {
+            @Override
+            public void write(ByteBuffer buffer, T value) {
+                if (buffer.remaining() < codec.width()) {
+                    throw new BufferOverflowException();
+                }
+                codec.write(buffer, buffer.position(), value);
+                buffer.position(buffer.position() + codec.width());
+            }
+
+            @Override
+            public T read(ByteBuffer buffer) {
+                return codec.read(buffer, buffer.position());
+            }
+        };
+    }
+
+    SnapshotSerializer<Integer> INTEGER = of(FixedWidthCodec.INTEGER);
+
+    SnapshotSerializer<Long> LONG = of(FixedWidthCodec.LONG);
+
+    SnapshotSerializer<Double> DOUBLE = of(FixedWidthCodec.DOUBLE);
+
+    SnapshotSerializer<String> STRING = new SnapshotSerializer<String>() {
+        @Override
+        public void write(ByteBuffer buffer, String value) {
+            buffer.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String read(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
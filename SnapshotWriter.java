@@ -0,0 +1,80 @@
+package datastructures.dictionaries;
+
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes snapshot data to a channel in large blocks, so the channel sees a few big writes instead
+ * of one per value.
+ *
+ * Values written with a SnapshotSerializer are preceded by their length in bytes, or -1 for null.
+ */
+final class SnapshotWriter {
+    static final int BLOCK_BYTES = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer;
+
+    SnapshotWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(BLOCK_BYTES);
+    }
+
+    /**
+     * @return is the buffer, with room for at least the given number of bytes at its position
+     */
+    private ByteBuffer reserve(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        return buffer;
+    }
+
+    void writeInt(int value) throws IOException {
+        reserve(Integer.BYTES).putInt(value);
+    }
+
+    void writeDouble(double value) throws IOException {
+        reserve(Double.BYTES).putDouble(value);
+    }
+
+    <T> void writeValue(SnapshotSerializer<? super T> serializer, T value) throws IOException {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        reserve(Integer.BYTES);
+        while (true) {
+            int lengthPosition = buffer.position();
+            try {
+                buffer.position(lengthPosition + Integer.BYTES);
+                serializer.write(buffer, value);
+                buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+                return;
+            } catch (BufferOverflowException e) {
+                // try again from the start of an empty buffer, which is made larger if the value
+                // did not fit into an empty one either
+                buffer.position(lengthPosition);
+                if (lengthPosition > 0) {
+                    flush();
+                } else {
+                    buffer = ByteBuffer.allocateDirect(2 * buffer.capacity());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes everything that is buffered to the channel.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
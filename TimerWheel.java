@@ -0,0 +1,132 @@
+package datastructures.dictionaries;
+
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of when entries expire, so that expired entries can be found without looking at
+ * the others. Entries are sorted into slots by their deadline on a hierarchy of wheels, like the
+ * hands of a clock: the first wheel has a slot per second (roughly) for the next minute, the
+ * second a slot per minute for the next hour, and so on up to days. Moving the time forward only
+ * visits the slots the time has passed. Entries found there have either expired or, if they came
+ * from a coarser wheel, are sorted into a finer one; every entry moves down at most once per wheel.
+ *
+ * Each slot is an AccessOrderList, so an entry can be taken out again in O(1) when it is updated
+ * or removed before it expires.
+ *
+ * Times are in nanoseconds, as read from a Ticker; only differences between them matter.
+ */
+final class TimerWheel<K, V> {
+    // how many slots each wheel has...
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    // ...and how long each slot of a wheel spans, as a power of two of nanoseconds: about
+    // 1.07 seconds, 1.14 minutes, 1.22 hours, 1.63 days and 6.5 days
+    private static final int[] SHIFTS = {30, 36, 42, 47, 49};
+
+    private final AccessOrderList<K, V>[][] wheels;
+    // the time the wheels have been moved forward to
+    private long nanos;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long nanos) {
+        wheels = (AccessOrderList<K, V>[][]) new AccessOrderList[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheels[i] = (AccessOrderList<K, V>[]) new AccessOrderList[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                wheels[i][j] = new AccessOrderList<>();
+            }
+        }
+        this.nanos = nanos;
+    }
+
+    /**
+     * Puts the node into the slot for its deadline. The node must not be scheduled already.
+     */
+    void schedule(Node<K, V> node) {
+        long delay = node.deadline - nanos;
+        int wheel = 0;
+        // each wheel takes the deadlines that fall before the first slot of the next wheel ends
+        while (wheel < BUCKETS.length - 1 && delay >= (1L << SHIFTS[wheel + 1])) {
+            wheel++;
+        }
+        int slot = (int) ((node.deadline >> SHIFTS[wheel]) & (BUCKETS[wheel] - 1));
+        node.wheel = wheel;
+        node.slot = slot;
+        wheels[wheel][slot].addToBack(node);
+    }
+
+    /**
+     * Takes the node out of its slot, if it is scheduled.
+     */
+    void deschedule(Node<K, V> node) {
+        if (node.wheel >= 0) {
+            wheels[node.wheel][node.slot].unlink(node);
+            node.wheel = -1;
+            node.slot = -1;
+        }
+    }
+
+    /**
+     * Moves the time forward, handing every node whose deadline has passed to `expired` (after
+     * taking it out of the wheels) and sorting nodes of the passed slots that have not expired
+     * yet into finer wheels.
+     *
+     * @param now: the current time; does nothing if it is not later than the last one
+     */
+    void advance(long now, Consumer<Node<K, V>> expired) {
+        long previous = nanos;
+        if (now - previous <= 0) {
+            return;
+        }
+        nanos = now;
+        for (int wheel = 0; wheel < BUCKETS.length; wheel++) {
+            long previousTicks = previous >> SHIFTS[wheel];
+            long ticks = now >> SHIFTS[wheel];
+            if (ticks == previousTicks) { // coarser wheels have not moved either
+                break;
+            }
+            long passed = Math.min(ticks - previousTicks, BUCKETS[wheel]);
+            for (long tick = previousTicks; tick < previousTicks + passed + 1; tick++) {
+                expireSlot(wheel, (int) (tick & (BUCKETS[wheel] - 1)), expired);
+            }
+        }
+    }
+
+    private void expireSlot(int wheel, int slot, Consumer<Node<K, V>> expired) {
+        AccessOrderList<K, V> nodes = wheels[wheel][slot];
+        AccessOrderList<K, V> pending = new AccessOrderList<>();
+        // detach the whole slot first, since nodes that are not due yet may land in it again
+        while (nodes.front != null) {
+            AccessOrderList.Node<K, V> node = nodes.front;
+            nodes.unlink(node);
+            pending.addToBack(node);
+        }
+        while (pending.front != null) {
+            @SuppressWarnings("unchecked")
+            Node<K, V> node = (Node<K, V>) pending.front;
+            pending.unlink(node);
+            node.wheel = -1;
+            node.slot = -1;
+            if (node.deadline - nanos <= 0) {
+                expired.accept(node);
+            } else {
+                schedule(node);
+            }
+        }
+    }
+
+    /**
+     * An entry with a deadline. `wheel` and `slot` are -1 while it is not scheduled.
+     */
+    static class Node<K, V> extends AccessOrderList.Node<K, V> {
+        long deadline;
+        int wheel;
+        int slot;
+
+        Node(K key, V value) {
+            super(key, value);
+            wheel = -1;
+            slot = -1;
+        }
+    }
+}
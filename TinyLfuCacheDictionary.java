@@ -0,0 +1,345 @@
+package datastructures.dictionaries;
+
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A dictionary that holds at most a fixed number of pairs and, once it is full, decides which
+ * pair to drop by how often keys have been used recently rather than only by how recently
+ * (W-TinyLFU). A long scan over keys that are each used once cannot push out the keys that are
+ * used all the time, which is what happens to a plain LRU cache.
+ *
+ * The pairs are kept in three AccessOrderLists:
+ *  - the window, a small LRU area (1% of the capacity) that every new key enters first, so a key
+ *    gets some time to prove itself,
+ *  - probation, for keys that left the window or were not used again while protected,
+ *  - protected (80% of the rest), for keys that were used again while on probation.
+ * When a key falls out of the window while the cache is full, it only stays if a FrequencySketch
+ * estimates that it has been used more often than the key probation would evict instead.
+ *
+ * Getting a key or putting a new value for it counts as using it; `containsKey` does not. Every
+ * lookup, hit or miss, is counted by the sketch and in the hit and miss counters.
+ *
+ * Not thread-safe.
+ *
+ * @see IDictionary for more details on what each method should do
+ */
+public class TinyLfuCacheDictionary<K, V> implements IDictionary<K, V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final int capacity;
+    private final int windowCapacity;
+    private final int protectedCapacity;
+
+    private final ChainedHashDictionary<K, CacheNode<K, V>> nodes;
+    private final AccessOrderList<K, V> window;
+    private final AccessOrderList<K, V> probation;
+    private final AccessOrderList<K, V> protectedList;
+    private final FrequencySketch sketch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param capacity: the largest number of pairs the cache holds
+     * @throws IllegalArgumentException: if the capacity is not positive
+     */
+    public TinyLfuCacheDictionary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        windowCapacity = Math.max(1, (int) (capacity * WINDOW_SHARE));
+        protectedCapacity = (int) ((capacity - windowCapacity) * PROTECTED_SHARE);
+        nodes = new ChainedHashDictionary<>();
+        nodes.ensureCapacity(capacity); // a full cache should never have to resize its table
+        window = new AccessOrderList<>();
+        probation = new AccessOrderList<>();
+        protectedList = new AccessOrderList<>();
+        sketch = new FrequencySketch(capacity);
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * @return is the largest number of pairs the cache holds
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return is the number of `get` and `getOrDefault` calls that found their key
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * @return is the number of `get` and `getOrDefault` calls that did not find their key
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * @return is the fraction of `get` and `getOrDefault` calls that found their key
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return is the number of pairs dropped to make room for new ones
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * @return is the node of the key after counting the lookup, or null if the key is not cached
+     */
+    private CacheNode<K, V> lookUp(K key) {
+        sketch.increment(key);
+        CacheNode<K, V> node = nodes.getOrNull(key);
+        if (node == null) {
+            misses++;
+        } else {
+            hits++;
+            onUse(node);
+        }
+        return node;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     * @throws NoSuchKeyException: if the key is not in the cache
+     */
+    @Override
+    public V get(K key) {
+        CacheNode<K, V> node = lookUp(key);
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        return node.value;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @param defaultValue: what to return if the key is not in the cache
+     * @return is the value of the given key, or the default value if the key is not in the cache
+     */
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        CacheNode<K, V> node = lookUp(key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    /**
+     * Puts the pair in. A new key enters the window, which may push the window's least recently
+     * used key out to compete with probation for a place in the cache.
+     *
+     * @param key: the given key the user wants to add to the cache
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in cache, return its value; otherwise return null
+     */
+    @Override
+    public V put(K key, V value) {
+        sketch.increment(key);
+        CacheNode<K, V> node = nodes.getOrNull(key);
+        if (node != null) {
+            V oldValue = node.value;
+            node.value = value;
+            onUse(node);
+            return oldValue;
+        }
+        node = new CacheNode<>(key, value);
+        nodes.put(key, node);
+        window.addToBack(node);
+        if (window.size() > windowCapacity) {
+            leaveWindow();
+        }
+        return null;
+    }
+
+    /**
+     * Moves a used node to the back of its list. A node on probation has now been used twice and
+     * moves up to protected, which may push protected's least recently used node back down.
+     */
+    private void onUse(CacheNode<K, V> node) {
+        if (node.queue == WINDOW) {
+            window.moveToBack(node);
+        } else if (node.queue == PROTECTED) {
+            protectedList.moveToBack(node);
+        } else { // PROBATION
+            probation.unlink(node);
+            if (protectedCapacity == 0) { // there is no protected area at this capacity
+                probation.addToBack(node);
+                return;
+            }
+            node.queue = PROTECTED;
+            protectedList.addToBack(node);
+            if (protectedList.size() > protectedCapacity) {
+                CacheNode<K, V> demoted = (CacheNode<K, V>) protectedList.front;
+                protectedList.unlink(demoted);
+                demoted.queue = PROBATION;
+                probation.addToBack(demoted);
+            }
+        }
+    }
+
+    /**
+     * Moves the window's least recently used node to probation. If that makes the cache hold too
+     * many pairs, it and probation's least recently used node compete, and the one the sketch says
+     * was used less often is evicted.
+     */
+    private void leaveWindow() {
+        CacheNode<K, V> candidate = (CacheNode<K, V>) window.front;
+        window.unlink(candidate);
+        candidate.queue = PROBATION;
+        probation.addToBack(candidate);
+        if (nodes.size() <= capacity) {
+            return;
+        }
+
+        CacheNode<K, V> victim = (CacheNode<K, V>) probation.front;
+        if (victim == candidate) { // nothing else is on probation, so the victim comes from protected
+            victim = (CacheNode<K, V>) protectedList.front;
+        }
+        if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+            evict(candidate);
+        } else {
+            evict(victim);
+        }
+    }
+
+    private void evict(CacheNode<K, V> node) {
+        listOf(node).unlink(node);
+        nodes.remove(node.key);
+        evictions++;
+    }
+
+    private AccessOrderList<K, V> listOf(CacheNode<K, V> node) {
+        if (node.queue == WINDOW) {
+            return window;
+        }
+        return node.queue == PROTECTED ? protectedList : probation;
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in cache, return null
+     *         Warning: values themselves can be null
+     */
+    @Override
+    public V remove(K key) {
+        CacheNode<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return null;
+        }
+        listOf(node).unlink(node);
+        return node.value;
+    }
+
+    /**
+     *
+     * @param key: checks the cache to see if given the key exists; does not count as using it
+     * @return is true if key exists; false otherwise
+     */
+    @Override
+    public boolean containsKey(K key) {
+        return nodes.containsKey(key);
+    }
+
+    /**
+     *
+     * @return is the size of the cache
+     */
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     *
+     * @return creates an iterator that goes through the window, then probation, then protected,
+     *         each from the least to the most recently used pair; iterating does not count as
+     *         using the pairs
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new CacheIterator<>(window.front, probation.front, protectedList.front);
+    }
+
+    @Override
+    public String toString() {
+        return IDictionary.toString(this);
+    }
+
+    private static class CacheNode<K, V> extends AccessOrderList.Node<K, V> {
+        // which list the node is in: WINDOW, PROBATION or PROTECTED
+        int queue;
+
+        CacheNode(K key, V value) {
+            super(key, value);
+            queue = WINDOW;
+        }
+    }
+
+    private static class CacheIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private AccessOrderList.Node<K, V> next;
+        // the fronts of the lists the iterator has not reached yet; set to null once reached
+        private AccessOrderList.Node<K, V> probationFront;
+        private AccessOrderList.Node<K, V> protectedFront;
+
+        public CacheIterator(AccessOrderList.Node<K, V> windowFront, AccessOrderList.Node<K, V> probationFront,
+                             AccessOrderList.Node<K, V> protectedFront) {
+            next = windowFront;
+            this.probationFront = probationFront;
+            this.protectedFront = protectedFront;
+            skipEmptyLists();
+        }
+
+        /**
+         * Moves on to the front of the next list, if the current one is used up.
+         */
+        private void skipEmptyLists() {
+            if (next == null) {
+                next = probationFront;
+                probationFront = null;
+            }
+            if (next == null) {
+                next = protectedFront;
+                protectedFront = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> result = new KVPair<>(next.key, next.value);
+            next = next.next;
+            skipEmptyLists();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package datastructures.dictionaries;
+
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * A chain of ChainedHashDictionary that is kept as a balanced (AVL) search tree instead of an
+ * array, so looking up a key takes O(log n) comparisons even when many keys share a chain.
+ *
+ * Keys are ordered by hash code first. Keys with the same hash code are ordered by `compareTo`
+ * when they are of the same `Comparable` class. Keys that still cannot be told apart are placed
+ * by a fixed tie-breaking order, and a lookup for such a key has to search both subtrees.
+ */
+final class TreeBucket<K, V> extends HashBucket<K, V> {
+    Node<K, V> root;
+    private int size;
+
+    // set by removeNode to the node that was taken out, if any
+    private Node<K, V> removed;
+    // set by findCounted to the number of nodes it compared the key with
+    private int nodesVisited;
+
+    TreeBucket() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * @param chain: the chain to copy
+     * @return is a new tree bucket holding all of the pairs of the given chain
+     */
+    static <K, V> TreeBucket<K, V> of(HashBucket<K, V> chain) {
+        TreeBucket<K, V> bucket = new TreeBucket<>();
+        chain.forEachEntry((hash, key, value) -> bucket.insertAbsent(key, value, hash));
+        return bucket;
+    }
+
+    /**
+     * @return is the `compareTo` result of the given keys if they are of the same `Comparable`
+     *         class, or 0 if they cannot be compared that way
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareComparables(Object a, Object b) {
+        if (a instanceof Comparable && b != null && a.getClass() == b.getClass()) {
+            return ((Comparable) a).compareTo(b);
+        }
+        return 0;
+    }
+
+    /**
+     * @return is a consistent order for keys with the same hash code that `compareTo` cannot
+     *         order; never 0
+     */
+    private static int tieBreakOrder(Object a, Object b) {
+        if (a != null && b != null) {
+            int byClass = a.getClass().getName().compareTo(b.getClass().getName());
+            if (byClass != 0) {
+                return byClass;
+            }
+        }
+        return System.identityHashCode(a) <= System.identityHashCode(b) ? -1 : 1;
+    }
+
+    /**
+     * @return is the node holding the given key in the subtree rooted at the given node, or null
+     */
+    private static <K, V> Node<K, V> find(Node<K, V> node, int hash, Object key) {
+        return find(node, hash, key, null);
+    }
+
+    /**
+     * @param visited: if not null, its only element has the number of nodes compared with the
+     *                 key added to it
+     * @return is the node holding the given key in the subtree rooted at the given node, or null
+     */
+    private static <K, V> Node<K, V> find(Node<K, V> node, int hash, Object key, int[] visited) {
+        while (node != null) {
+            if (visited != null) {
+                visited[0]++;
+            }
+            if (hash < node.hash) {
+                node = node.left;
+            } else if (hash > node.hash) {
+                node = node.right;
+            } else if (Objects.equals(key, node.key)) {
+                return node;
+            } else {
+                int compared = compareComparables(key, node.key);
+                if (compared < 0) {
+                    node = node.left;
+                } else if (compared > 0) {
+                    node = node.right;
+                } else { // no way to tell which side it is on, so look on both
+                    Node<K, V> found = find(node.right, hash, key, visited);
+                    if (found != null) {
+                        return found;
+                    }
+                    node = node.left;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks the key up like `findEntry`, and also counts the nodes compared with it, for lookup
+     * statistics; see `nodesVisited`.
+     *
+     * @return is the node holding the given key, or null
+     */
+    Node<K, V> findCounted(K key, int hash) {
+        int[] visited = new int[1];
+        Node<K, V> node = find(root, hash, key, visited);
+        nodesVisited = visited[0];
+        return node;
+    }
+
+    /**
+     * @return is the number of nodes the last call to `findCounted` compared its key with
+     */
+    int nodesVisited() {
+        return nodesVisited;
+    }
+
+    /**
+     * @param key: the item who's value you want to find
+     * @return is the value of the item you wish to find
+     * @throws NoSuchKeyException: if the key does not exist in the bucket
+     */
+    @Override
+    V get(K key, int hash) {
+        Node<K, V> node = find(root, hash, key);
+        if (node == null) {
+            throw new NoSuchKeyException();
+        }
+        return node.value;
+    }
+
+    /**
+     *
+     * @param key: the given key the user wants to add to the bucket
+     * @param value: the value corresponding to the user's given key
+     * @return if the key already exists in bucket, return its value; otherwise return null
+     */
+    @Override
+    V put(K key, V value, int hash) {
+        Node<K, V> node = find(root, hash, key);
+        if (node != null) {
+            V oldValue = node.value;
+            node.value = value;
+            return oldValue;
+        }
+        insertAbsent(key, value, hash);
+        return null;
+    }
+
+    @Override
+    Entry<K, V> findEntry(K key, int hash) {
+        return find(root, hash, key);
+    }
+
+    @Override
+    void insertAbsent(K key, V value, int hash) {
+        root = insert(root, new Node<>(hash, key, value));
+        size++;
+    }
+
+    /**
+     * Inserts a node whose key is not in the subtree yet.
+     *
+     * @return is the new root of the subtree
+     */
+    private static <K, V> Node<K, V> insert(Node<K, V> node, Node<K, V> newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        int compared = Integer.compare(newNode.hash, node.hash);
+        if (compared == 0) {
+            compared = compareComparables(newNode.key, node.key);
+        }
+        if (compared == 0) {
+            compared = tieBreakOrder(newNode.key, node.key);
+        }
+        if (compared < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return rebalance(node);
+    }
+
+    /**
+     *
+     * @param key: the key for the value the user wishes to remove
+     * @return is the corresponding value that was removed; if key is not in bucket, return null
+     */
+    @Override
+    V remove(K key, int hash) {
+        removed = null;
+        root = removeNode(root, hash, key);
+        if (removed == null) {
+            return null;
+        }
+        V removedValue = removed.value;
+        removed = null;
+        size--;
+        return removedValue;
+    }
+
+    /**
+     * Takes the node holding the given key out of the subtree, if it is there, and stores it in
+     * `removed`.
+     *
+     * @return is the new root of the subtree
+     */
+    private Node<K, V> removeNode(Node<K, V> node, int hash, Object key) {
+        if (node == null) {
+            return null;
+        }
+        if (hash < node.hash) {
+            node.left = removeNode(node.left, hash, key);
+        } else if (hash > node.hash) {
+            node.right = removeNode(node.right, hash, key);
+        } else if (Objects.equals(key, node.key)) {
+            removed = node;
+            return unlink(node);
+        } else {
+            int compared = compareComparables(key, node.key);
+            if (compared < 0) {
+                node.left = removeNode(node.left, hash, key);
+            } else if (compared > 0) {
+                node.right = removeNode(node.right, hash, key);
+            } else {
+                node.right = removeNode(node.right, hash, key);
+                if (removed == null) {
+                    node.left = removeNode(node.left, hash, key);
+                }
+            }
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * @return is what should take the place of the given node once it is removed
+     */
+    private static <K, V> Node<K, V> unlink(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        successor.right = removeSmallest(node.right);
+        successor.left = node.left;
+        return rebalance(successor);
+    }
+
+    /**
+     * @return is the new root of the subtree once its leftmost node is taken out
+     */
+    private static <K, V> Node<K, V> removeSmallest(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeSmallest(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void updateHeight(Node<?, ?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    private static <K, V> Node<K, V> rotateRight(Node<K, V> node) {
+        Node<K, V> newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        updateHeight(node);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    private static <K, V> Node<K, V> rotateLeft(Node<K, V> node) {
+        Node<K, V> newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        updateHeight(node);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Restores the AVL property at the given node, assuming both of its subtrees have it.
+     *
+     * @return is the new root of the subtree
+     */
+    private static <K, V> Node<K, V> rebalance(Node<K, V> node) {
+        updateHeight(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     *
+     * @param key: checks the bucket to see if given the key exists
+     * @return is true if key exists; false otherwise
+     */
+    @Override
+    boolean containsKey(K key, int hash) {
+        return find(root, hash, key) != null;
+    }
+
+    /**
+     *
+     * @return is the size of the bucket
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return creates an iterator that goes through the bucket in tree order
+     *         Warning: does not allow user to modify contents
+     */
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new TreeBucketIterator<>(root);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, action);
+    }
+
+    private static <K, V> void forEach(Node<K, V> node, BiConsumer<? super K, ? super V> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.key, node.value);
+            node = node.right;
+        }
+    }
+
+    @Override
+    void forEachEntry(EntryVisitor<K, V> visitor) {
+        forEachEntry(root, visitor);
+    }
+
+    @Override
+    void trimToSize() {
+        // a tree has one node per pair and no spare room
+    }
+
+    private static <K, V> void forEachEntry(Node<K, V> node, EntryVisitor<K, V> visitor) {
+        while (node != null) {
+            forEachEntry(node.left, visitor);
+            visitor.visit(node.hash, node.key, node.value);
+            node = node.right;
+        }
+    }
+
+    @Override
+    <U> U search(BiFunction<? super K, ? super V, ? extends U> function) {
+        return search(root, function);
+    }
+
+    private static <K, V, U> U search(Node<K, V> node, BiFunction<? super K, ? super V, ? extends U> function) {
+        while (node != null) {
+            U result = search(node.left, function);
+            if (result == null) {
+                result = function.apply(node.key, node.value);
+            }
+            if (result != null) {
+                return result;
+            }
+            node = node.right;
+        }
+        return null;
+    }
+
+    @Override
+    void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        replaceAll(root, function);
+    }
+
+    private static <K, V> void replaceAll(Node<K, V> node, BiFunction<? super K, ? super V, ? extends V> function) {
+        while (node != null) {
+            replaceAll(node.left, function);
+            node.value = function.apply(node.key, node.value);
+            node = node.right;
+        }
+    }
+
+    static class Node<K, V> implements Entry<K, V> {
+        final int hash;
+        final K key;
+        V value;
+        Node<K, V> left;
+        Node<K, V> right;
+        int height;
+
+        Node(int hash, K key, V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.height = 1;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public void setValue(V value) {
+            this.value = value;
+        }
+    }
+
+    private static class TreeBucketIterator<K, V> implements Iterator<KVPair<K, V>> {
+        // the nodes whose left subtree is being visited, innermost on top
+        private final Deque<Node<K, V>> path;
+
+        public TreeBucketIterator(Node<K, V> root) {
+            path = new ArrayDeque<>();
+            pushLeftSpine(root);
+        }
+
+        private void pushLeftSpine(Node<K, V> node) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = path.pop();
+            pushLeftSpine(node.right);
+            return new KVPair<>(node.key, node.value);
+        }
+    }
+}
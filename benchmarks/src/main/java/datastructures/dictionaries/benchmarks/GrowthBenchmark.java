@@ -0,0 +1,60 @@
+package datastructures.dictionaries.benchmarks;
+
+import datastructures.dictionaries.IDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filling an empty dictionary with new keys, including every resize along the way,
+ * for different load factors and initial table sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowthBenchmark {
+    @Param({"CHAINED", "CHAINED_INCREMENTAL", "CHAINED_POWER_OF_TWO", "OPEN_ADDRESSING_LINEAR", "OPEN_ADDRESSING_ROBIN_HOOD"})
+    public Implementation impl;
+
+    @Param({"SEQUENTIAL_INT", "RANDOM_STRING"})
+    public KeyDistribution keys;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"0.5", "0.75", "0.9"})
+    public double loadFactor;
+
+    @Param({"11", "101", "10007"})
+    public int initialChainCount;
+
+    private Object[] newKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        newKeys = keys.keys(size, 42);
+    }
+
+    @Benchmark
+    public IDictionary<Object, Object> fill() {
+        IDictionary<Object, Object> dictionary = impl.create(loadFactor, initialChainCount);
+        for (Object key : newKeys) {
+            dictionary.put(key, key);
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,77 @@
+package datastructures.dictionaries.benchmarks;
+
+import datastructures.dictionaries.ArrayDictionary;
+import datastructures.dictionaries.ChainedHashDictionary;
+import datastructures.dictionaries.ConcurrentChainedHashDictionary;
+import datastructures.dictionaries.CopyOnWriteChainedHashDictionary;
+import datastructures.dictionaries.IDictionary;
+import datastructures.dictionaries.OpenAddressingDictionary;
+
+/**
+ * The IDictionary implementations that can be benchmarked, selected with the `impl` parameter.
+ */
+public enum Implementation {
+    CHAINED {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new ChainedHashDictionary<>(loadFactor, initialChainCount, DEFAULT_CHAIN_CAPACITY);
+        }
+    },
+    CHAINED_INCREMENTAL {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new ChainedHashDictionary<>(loadFactor, initialChainCount, DEFAULT_CHAIN_CAPACITY, true);
+        }
+    },
+    CHAINED_POWER_OF_TWO {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new ChainedHashDictionary<>(loadFactor, initialChainCount, DEFAULT_CHAIN_CAPACITY, false, true);
+        }
+    },
+    OPEN_ADDRESSING_LINEAR {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new OpenAddressingDictionary<>(loadFactor, initialChainCount,
+                    OpenAddressingDictionary.ProbingStrategy.LINEAR);
+        }
+    },
+    OPEN_ADDRESSING_ROBIN_HOOD {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new OpenAddressingDictionary<>(loadFactor, initialChainCount,
+                    OpenAddressingDictionary.ProbingStrategy.ROBIN_HOOD);
+        }
+    },
+    CONCURRENT {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new ConcurrentChainedHashDictionary<>(loadFactor, initialChainCount, DEFAULT_CHAIN_CAPACITY,
+                    Runtime.getRuntime().availableProcessors());
+        }
+    },
+    COPY_ON_WRITE {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new CopyOnWriteChainedHashDictionary<>(loadFactor, initialChainCount);
+        }
+    },
+    /**
+     * Every operation is a linear scan, so only use this one with small sizes.
+     */
+    ARRAY {
+        @Override
+        <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount) {
+            return new ArrayDictionary<>();
+        }
+    };
+
+    private static final int DEFAULT_CHAIN_CAPACITY = 2;
+
+    /**
+     * @param loadFactor: the load factor at which the table grows (ignored where it does not apply)
+     * @param initialChainCount: the initial number of chains or slots (ignored where it does not apply)
+     * @return is a new, empty dictionary
+     */
+    abstract <K, V> IDictionary<K, V> create(double loadFactor, int initialChainCount);
+}
@@ -0,0 +1,58 @@
+package datastructures.dictionaries.benchmarks;
+
+import datastructures.dictionaries.IDictionary;
+import datastructures.dictionaries.KVPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full walk over every pair of the dictionary.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterationBenchmark {
+    @Param({"CHAINED", "CHAINED_INCREMENTAL", "CHAINED_POWER_OF_TWO", "OPEN_ADDRESSING_LINEAR", "OPEN_ADDRESSING_ROBIN_HOOD"})
+    public Implementation impl;
+
+    @Param({"100000"})
+    public int size;
+
+    private IDictionary<Object, Object> dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dictionary = impl.create(0.75, 101);
+        for (Object key : KeyDistribution.SEQUENTIAL_INT.keys(size, 42)) {
+            dictionary.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public void iterator(Blackhole blackhole) {
+        for (KVPair<Object, Object> pair : dictionary) {
+            blackhole.consume(pair.getValue());
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        dictionary.forEach((key, value) -> blackhole.consume(value));
+    }
+}
@@ -0,0 +1,103 @@
+package datastructures.dictionaries.benchmarks;
+
+import java.util.Random;
+
+/**
+ * The kinds of keys the benchmarks can use, selected with the `keys` parameter.
+ *
+ * Every distribution can make a set of keys to put into a dictionary and a set of the same size
+ * that is guaranteed to be disjoint from it, for measuring misses.
+ */
+public enum KeyDistribution {
+    /** Boxed integers 0, 1, 2, ... */
+    SEQUENTIAL_INT {
+        @Override
+        Object[] keys(int count, long seed) {
+            Object[] keys = new Object[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = i;
+            }
+            return keys;
+        }
+
+        @Override
+        Object[] missingKeys(int count, long seed) {
+            Object[] keys = new Object[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = count + i;
+            }
+            return keys;
+        }
+    },
+    /** Random 16 character strings. */
+    RANDOM_STRING {
+        @Override
+        Object[] keys(int count, long seed) {
+            return randomStrings('k', count, new Random(seed));
+        }
+
+        @Override
+        Object[] missingKeys(int count, long seed) {
+            return randomStrings('m', count, new Random(~seed));
+        }
+    },
+    /**
+     * Strings that come in groups of COLLISION_GROUP_SIZE keys sharing the same hashCode(), the
+     * way a hash-flooding attack would craft them. The missing keys share the hash codes of the
+     * present ones too, so misses have to look through the full groups.
+     */
+    COLLIDING_STRING {
+        @Override
+        Object[] keys(int count, long seed) {
+            return collidingStrings(count, 0);
+        }
+
+        @Override
+        Object[] missingKeys(int count, long seed) {
+            return collidingStrings(count, COLLISION_GROUP_SIZE);
+        }
+    };
+
+    static final int COLLISION_GROUP_SIZE = 64;
+
+    /**
+     * @return is `count` distinct keys of this distribution
+     */
+    abstract Object[] keys(int count, long seed);
+
+    /**
+     * @return is `count` distinct keys of this distribution, none of which are in `keys(count, seed)`
+     */
+    abstract Object[] missingKeys(int count, long seed);
+
+    private static Object[] randomStrings(char prefix, int count, Random random) {
+        Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder key = new StringBuilder().append(prefix).append(i).append('-');
+            while (key.length() < 16) {
+                key.append((char) ('a' + random.nextInt(26)));
+            }
+            keys[i] = key.toString();
+        }
+        return keys;
+    }
+
+    /**
+     * "Aa" and "BB" have the same hash code, so all strings made of the same number of those
+     * blocks do too, and so do all strings made of the same prefix followed by such blocks.
+     *
+     * @param firstCombination: which block combination the first key of every group uses
+     */
+    private static Object[] collidingStrings(int count, int firstCombination) {
+        Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder key = new StringBuilder("g").append(i / COLLISION_GROUP_SIZE).append(':');
+            int combination = firstCombination + i % COLLISION_GROUP_SIZE;
+            for (int block = 0; block < 7; block++) {
+                key.append(((combination >> block) & 1) == 0 ? "Aa" : "BB");
+            }
+            keys[i] = key.toString();
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,79 @@
+package datastructures.dictionaries.benchmarks;
+
+import datastructures.dictionaries.IDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single lookups of keys that are and are not in the dictionary.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    @Param({"CHAINED", "CHAINED_INCREMENTAL", "CHAINED_POWER_OF_TWO", "OPEN_ADDRESSING_LINEAR", "OPEN_ADDRESSING_ROBIN_HOOD"})
+    public Implementation impl;
+
+    @Param({"SEQUENTIAL_INT", "RANDOM_STRING", "COLLIDING_STRING"})
+    public KeyDistribution keys;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private IDictionary<Object, Object> dictionary;
+    private Object[] presentKeys;
+    private Object[] missingKeys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        presentKeys = keys.keys(size, 42);
+        missingKeys = keys.missingKeys(size, 42);
+        dictionary = impl.create(0.75, 101);
+        for (Object key : presentKeys) {
+            dictionary.put(key, key);
+        }
+        next = 0;
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == size ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Object getHit() {
+        return dictionary.get(presentKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object getOrDefaultMiss() {
+        return dictionary.getOrDefault(missingKeys[nextIndex()], null);
+    }
+
+    @Benchmark
+    public boolean containsKeyHit() {
+        return dictionary.containsKey(presentKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean containsKeyMiss() {
+        return dictionary.containsKey(missingKeys[nextIndex()]);
+    }
+}